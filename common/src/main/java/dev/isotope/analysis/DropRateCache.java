@@ -0,0 +1,87 @@
+package dev.isotope.analysis;
+
+import dev.isotope.analysis.DropRateCalculator.DropRate;
+import dev.isotope.analysis.DropRateCalculator.PoolStats;
+import dev.isotope.data.loot.LootTableStructure;
+import dev.isotope.editing.LootEditManager;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoized drop rates per loot table.
+ *
+ * Entries are keyed by table ID and the table's edit version from
+ * LootEditManager, and are only reused for the same structure instance,
+ * so widgets can ask for rates every frame without redoing the math.
+ * All returned lists and maps are immutable and pre-sorted.
+ */
+public final class DropRateCache {
+
+    private static final DropRateCache INSTANCE = new DropRateCache();
+
+    private final Map<ResourceLocation, TableRates> cache = new ConcurrentHashMap<>();
+
+    private DropRateCache() {}
+
+    public static DropRateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Precomputed drop rates for a loot table.
+     *
+     * @param rates All rates by descending probability, as DropRateCalculator.calculate
+     * @param byItem Rate per item; for items in several entries, the least likely one
+     * @param poolStats Statistics per pool, in pool order
+     */
+    public record TableRates(
+        LootTableStructure structure,
+        long editVersion,
+        List<DropRate> rates,
+        Map<ResourceLocation, DropRate> byItem,
+        List<PoolStats> poolStats
+    ) {}
+
+    /**
+     * Get the drop rates for a structure, computing them on first use.
+     */
+    public TableRates get(LootTableStructure structure) {
+        long version = LootEditManager.getInstance().getEditVersion(structure.id());
+
+        TableRates cached = cache.get(structure.id());
+        if (cached != null && cached.editVersion() == version && cached.structure() == structure) {
+            return cached;
+        }
+
+        TableRates rates = compute(structure, version);
+        cache.put(structure.id(), rates);
+        return rates;
+    }
+
+    public void invalidate(ResourceLocation tableId) {
+        cache.remove(tableId);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static TableRates compute(LootTableStructure structure, long version) {
+        List<PoolStats> poolStats = new ArrayList<>(structure.pools().size());
+        for (int i = 0; i < structure.pools().size(); i++) {
+            PoolStats stats = DropRateCalculator.calculatePoolStats(structure.pools().get(i), i);
+            poolStats.add(new PoolStats(stats.poolIndex(), stats.avgRolls(), stats.totalWeight(),
+                stats.expectedItemsPerRoll(), List.copyOf(stats.rates())));
+        }
+
+        List<DropRate> rates = DropRateCalculator.calculate(structure);
+        Map<ResourceLocation, DropRate> byItem = new HashMap<>();
+        for (DropRate rate : rates) {
+            byItem.put(rate.item(), rate);
+        }
+
+        return new TableRates(structure, version, List.copyOf(rates), Map.copyOf(byItem), List.copyOf(poolStats));
+    }
+}
@@ -0,0 +1,685 @@
+package dev.isotope.analysis;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.isotope.Isotope;
+import dev.isotope.data.loot.*;
+import dev.isotope.editing.LootEditManager;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Analytic expected loot per chest open.
+ *
+ * Unlike DropRateCalculator, which only looks at flat item entries, this walks
+ * the whole table the way vanilla rolls it:
+ * - composite entries (alternatives, group, sequence) expand into the
+ *   candidate set a roll picks from by weight
+ * - loot_table entries recurse into the referenced table (memoized per table,
+ *   cycles are cut and flagged)
+ * - random_chance and random_chance_with_enchanted_bonus conditions on pools,
+ *   entries and functions (no enchantments apply to chests)
+ * - uniform, binomial and constant rolls, bonus rolls scaled by luck, and
+ *   set_count (including add) for counts
+ *
+ * Results for luck 0 are cached per table. Editing a table invalidates it and
+ * every table that references it.
+ */
+public final class ExpectedValueEngine {
+
+    private static final ExpectedValueEngine INSTANCE = new ExpectedValueEngine();
+
+    // Random conditions per pool enumerated exactly; beyond this they are sampled
+    private static final int MAX_ENUMERATED_CONDITIONS = 12;
+    private static final int SAMPLED_ASSIGNMENTS = 4096;
+
+    // Results for luck 0 by table ID
+    private final Map<ResourceLocation, TableExpectation> cache = new ConcurrentHashMap<>();
+
+    // Table ID -> tables whose cached result includes it
+    private final Map<ResourceLocation, Set<ResourceLocation>> dependents = new ConcurrentHashMap<>();
+
+    // Background evaluation for UI lists, so rendering never evaluates a table
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Isotope-ExpectedValue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExpectedValueEngine() {}
+
+    public static ExpectedValueEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Expected loot for one open of a table with no luck, cached.
+     * Uses the edited structure when the table has edits.
+     */
+    public Optional<TableExpectation> get(ResourceLocation tableId) {
+        TableExpectation cached = cache.get(tableId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        synchronized (this) {
+            return Optional.ofNullable(new Evaluation(0f, true).evaluate(tableId));
+        }
+    }
+
+    /**
+     * Expected loot with no luck for many tables, evaluated on a background
+     * thread. Tables that are not parsed are left out. Cancelling the
+     * returned future stops the evaluation before the next table.
+     */
+    public CompletableFuture<Map<ResourceLocation, TableExpectation>> getAllAsync(Collection<ResourceLocation> tableIds) {
+        List<ResourceLocation> ids = List.copyOf(tableIds);
+        CompletableFuture<Map<ResourceLocation, TableExpectation>> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                Map<ResourceLocation, TableExpectation> results = new HashMap<>();
+                for (ResourceLocation tableId : ids) {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    get(tableId).ifPresent(result -> results.put(tableId, result));
+                }
+                future.complete(results);
+            } catch (Exception e) {
+                Isotope.LOGGER.error("[ExpectedValue] Background evaluation failed: {}", e.getMessage());
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Expected loot for one open of a table at the given luck, not cached.
+     */
+    public Optional<TableExpectation> compute(ResourceLocation tableId, float luck) {
+        if (luck == 0f) {
+            return get(tableId);
+        }
+        return Optional.ofNullable(new Evaluation(luck, false).evaluate(tableId));
+    }
+
+    /**
+     * Expected loot for one open of the given structure rather than the
+     * stored one, with no luck, not cached. Referenced tables are looked up
+     * as usual.
+     */
+    public TableExpectation evaluate(LootTableStructure structure) {
+        return new Evaluation(0f, false).evaluate(structure);
+    }
+
+    /**
+     * Drop the cached result of a table and every table that references it.
+     */
+    public void invalidate(ResourceLocation tableId) {
+        Deque<ResourceLocation> queue = new ArrayDeque<>();
+        Set<ResourceLocation> seen = new HashSet<>();
+        queue.add(tableId);
+        while (!queue.isEmpty()) {
+            ResourceLocation id = queue.poll();
+            if (!seen.add(id)) continue;
+            cache.remove(id);
+            Set<ResourceLocation> parents = dependents.remove(id);
+            if (parents != null) {
+                queue.addAll(parents);
+            }
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        dependents.clear();
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Expected yield of one item per chest open.
+     *
+     * @param expectedCount Expected total item count
+     * @param expectedStacks Expected number of stacks generated (before splitting into slots)
+     */
+    public record ItemExpectation(
+        ResourceLocation item,
+        double expectedCount,
+        double expectedStacks
+    ) {}
+
+    /**
+     * Expected yield of a loot table per open.
+     *
+     * @param items Items by descending expected count
+     * @param cyclic A loot_table reference loop was cut while evaluating
+     * @param approximate Some part could not be evaluated exactly (sampled conditions,
+     *                    unknown number providers, or missing referenced tables)
+     */
+    public record TableExpectation(
+        ResourceLocation tableId,
+        List<ItemExpectation> items,
+        double expectedStacks,
+        double expectedCount,
+        boolean cyclic,
+        boolean approximate
+    ) {
+        public Map<ResourceLocation, ItemExpectation> byItem() {
+            Map<ResourceLocation, ItemExpectation> map = new HashMap<>();
+            for (ItemExpectation item : items) {
+                map.put(item.item(), item);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Expected count and stacks per item; functions act on both linearly.
+     */
+    private static final class Yield {
+        final Map<ResourceLocation, double[]> items = new LinkedHashMap<>();
+
+        void add(ResourceLocation item, double count, double stacks) {
+            double[] acc = items.computeIfAbsent(item, k -> new double[2]);
+            acc[0] += count;
+            acc[1] += stacks;
+        }
+
+        void addScaled(Yield other, double scale) {
+            if (scale == 0) return;
+            other.items.forEach((item, v) -> add(item, v[0] * scale, v[1] * scale));
+        }
+    }
+
+    /**
+     * One evaluation pass: memoizes tables, tracks the reference path for cycles.
+     */
+    private final class Evaluation {
+        private final float luck;
+        private final boolean useCache;
+        private final Map<ResourceLocation, Yield> memo = new HashMap<>();
+        private final Map<ResourceLocation, TableExpectation> results = new HashMap<>();
+        private final LinkedHashSet<ResourceLocation> path = new LinkedHashSet<>();
+        private final Random sampler = new Random(0x15070BEL);
+
+        // Depth in path of the shallowest table a cycle was cut back to
+        private int cutDepth = Integer.MAX_VALUE;
+        private boolean cyclic = false;
+        private boolean approximate = false;
+
+        Evaluation(float luck, boolean useCache) {
+            this.luck = luck;
+            this.useCache = useCache;
+        }
+
+        TableExpectation evaluate(ResourceLocation tableId) {
+            Yield loot = tableYield(tableId);
+            if (loot == null) {
+                return null;
+            }
+            TableExpectation result = results.get(tableId);
+            return result != null ? result : toExpectation(tableId, loot, cyclic, approximate);
+        }
+
+        TableExpectation evaluate(LootTableStructure structure) {
+            path.add(structure.id());
+            Yield loot = structureYield(structure);
+            path.remove(structure.id());
+            return toExpectation(structure.id(), loot, cyclic, approximate);
+        }
+
+        private Yield tableYield(ResourceLocation tableId) {
+            Yield known = memo.get(tableId);
+            if (known != null) {
+                TableExpectation result = results.get(tableId);
+                cyclic |= result.cyclic();
+                approximate |= result.approximate();
+                return known;
+            }
+            if (useCache) {
+                TableExpectation cached = cache.get(tableId);
+                if (cached != null) {
+                    Yield loot = fromExpectation(cached);
+                    memo.put(tableId, loot);
+                    results.put(tableId, cached);
+                    cyclic |= cached.cyclic();
+                    approximate |= cached.approximate();
+                    return loot;
+                }
+            }
+
+            if (path.contains(tableId)) {
+                // Reference loop: the table contributes nothing on the way back in
+                int depth = 0;
+                for (ResourceLocation id : path) {
+                    if (id.equals(tableId)) break;
+                    depth++;
+                }
+                cutDepth = Math.min(cutDepth, depth);
+                cyclic = true;
+                Isotope.LOGGER.warn("[ExpectedValue] Loot table reference loop: {} -> {}", path, tableId);
+                return new Yield();
+            }
+
+            Optional<LootTableStructure> structure = LootEditManager.getInstance().getEditedStructure(tableId);
+            if (structure.isEmpty()) {
+                return null;
+            }
+
+            int depth = path.size();
+            boolean outerCyclic = cyclic;
+            boolean outerApproximate = approximate;
+            int outerCutDepth = cutDepth;
+            cyclic = false;
+            approximate = false;
+            cutDepth = Integer.MAX_VALUE;
+
+            path.add(tableId);
+            Yield loot = structureYield(structure.get());
+            path.remove(tableId);
+
+            // A result that depends on a table still being evaluated above it
+            // is only valid along this path, so it is neither memoized nor cached
+            boolean complete = cutDepth >= depth;
+            if (complete) {
+                memo.put(tableId, loot);
+                TableExpectation result = toExpectation(tableId, loot, cyclic, approximate);
+                results.put(tableId, result);
+                if (useCache) {
+                    cache.put(tableId, result);
+                }
+            }
+
+            cyclic |= outerCyclic;
+            approximate |= outerApproximate;
+            cutDepth = Math.min(outerCutDepth, cutDepth >= depth ? Integer.MAX_VALUE : cutDepth);
+            return loot;
+        }
+
+        private Yield structureYield(LootTableStructure structure) {
+            Yield loot = new Yield();
+            for (LootPool pool : structure.pools()) {
+                loot.addScaled(poolYield(structure.id(), pool), 1.0);
+            }
+            applyFunctions(loot, structure.functions());
+            return loot;
+        }
+
+        private Yield poolYield(ResourceLocation tableId, LootPool pool) {
+            Yield loot = new Yield();
+            double poolChance = conditionsProbability(pool.conditions());
+            if (poolChance == 0 || pool.entries().isEmpty()) {
+                return loot;
+            }
+
+            double rolls = expectedInt(pool.rolls()) + expectedBonusRolls(pool.bonusRolls());
+            if (rolls <= 0) {
+                return loot;
+            }
+
+            // Probability each singleton entry is picked on one roll
+            Map<LootEntry, Double> selection = selectionProbabilities(pool.entries());
+            selection.forEach((entry, p) -> {
+                Yield entryYield = singletonYield(tableId, entry);
+                applyFunctions(entryYield, entry.functions());
+                loot.addScaled(entryYield, p);
+            });
+            applyFunctions(loot, pool.functions());
+
+            Yield scaled = new Yield();
+            scaled.addScaled(loot, poolChance * rolls);
+            return scaled;
+        }
+
+        /**
+         * Per-roll pick probability of every singleton entry in a pool.
+         * Entries with a random condition pass or fail independently; every
+         * combination is weighed by its probability.
+         */
+        private Map<LootEntry, Double> selectionProbabilities(List<LootEntry> entries) {
+            Map<LootEntry, Double> chances = new IdentityHashMap<>();
+            collectRandomEntries(entries, chances);
+            List<LootEntry> random = new ArrayList<>(chances.keySet());
+
+            Map<LootEntry, Double> selection = new IdentityHashMap<>();
+            Map<LootEntry, Boolean> assignment = new IdentityHashMap<>();
+            List<LootEntry> candidates = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+
+            if (random.size() <= MAX_ENUMERATED_CONDITIONS) {
+                int combinations = 1 << random.size();
+                for (int mask = 0; mask < combinations; mask++) {
+                    double p = 1.0;
+                    for (int i = 0; i < random.size(); i++) {
+                        boolean pass = (mask & (1 << i)) != 0;
+                        double chance = chances.get(random.get(i));
+                        p *= pass ? chance : 1 - chance;
+                        assignment.put(random.get(i), pass);
+                    }
+                    pick(entries, assignment, candidates, weights, selection, p);
+                }
+            } else {
+                approximate = true;
+                double p = 1.0 / SAMPLED_ASSIGNMENTS;
+                for (int s = 0; s < SAMPLED_ASSIGNMENTS; s++) {
+                    for (LootEntry entry : random) {
+                        assignment.put(entry, sampler.nextDouble() < chances.get(entry));
+                    }
+                    pick(entries, assignment, candidates, weights, selection, p);
+                }
+            }
+            return selection;
+        }
+
+        private void pick(List<LootEntry> entries, Map<LootEntry, Boolean> assignment,
+                          List<LootEntry> candidates, List<Integer> weights,
+                          Map<LootEntry, Double> selection, double p) {
+            if (p == 0) return;
+            candidates.clear();
+            weights.clear();
+            for (LootEntry entry : entries) {
+                expand(entry, assignment, candidates, weights);
+            }
+
+            int total = 0;
+            for (int w : weights) total += w;
+            if (total == 0) return;
+
+            for (int i = 0; i < candidates.size(); i++) {
+                selection.merge(candidates.get(i), p * weights.get(i) / total, Double::sum);
+            }
+        }
+
+        /**
+         * Vanilla entry expansion: returns whether the entry "ran", adding the
+         * singleton entries it contributes to the candidate list.
+         */
+        private boolean expand(LootEntry entry, Map<LootEntry, Boolean> assignment,
+                               List<LootEntry> candidates, List<Integer> weights) {
+            Boolean pass = assignment.get(entry);
+            if (pass == null) {
+                pass = conditionsProbability(entry.conditions()) > 0;
+            }
+            if (!pass) {
+                return false;
+            }
+
+            switch (entry.type()) {
+                case LootEntry.TYPE_ALTERNATIVES -> {
+                    for (LootEntry child : entry.children()) {
+                        if (expand(child, assignment, candidates, weights)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                case LootEntry.TYPE_GROUP -> {
+                    for (LootEntry child : entry.children()) {
+                        expand(child, assignment, candidates, weights);
+                    }
+                    return true;
+                }
+                case LootEntry.TYPE_SEQUENCE -> {
+                    for (LootEntry child : entry.children()) {
+                        if (!expand(child, assignment, candidates, weights)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                default -> {
+                    int weight = Math.max((int) Math.floor(entry.weight() + entry.quality() * luck), 0);
+                    if (weight > 0) {
+                        candidates.add(entry);
+                        weights.add(weight);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void collectRandomEntries(List<LootEntry> entries, Map<LootEntry, Double> out) {
+            for (LootEntry entry : entries) {
+                double chance = conditionsProbability(entry.conditions());
+                if (chance > 0 && chance < 1) {
+                    out.put(entry, chance);
+                }
+                collectRandomEntries(entry.children(), out);
+            }
+        }
+
+        /**
+         * Yield of a singleton entry once picked, before its functions.
+         */
+        private Yield singletonYield(ResourceLocation tableId, LootEntry entry) {
+            Yield loot = new Yield();
+            switch (entry.type()) {
+                case LootEntry.TYPE_ITEM -> entry.name().ifPresent(item -> loot.add(item, 1, 1));
+                case LootEntry.TYPE_LOOT_TABLE -> entry.name().ifPresent(ref -> {
+                    if (useCache) {
+                        dependents.computeIfAbsent(ref, k -> ConcurrentHashMap.newKeySet()).add(tableId);
+                    }
+                    Yield nested = tableYield(ref);
+                    if (nested == null) {
+                        approximate = true;
+                        Isotope.LOGGER.debug("[ExpectedValue] {} references unknown table {}", tableId, ref);
+                        return;
+                    }
+                    loot.addScaled(nested, 1.0);
+                });
+                case LootEntry.TYPE_TAG -> entry.name().ifPresent(tag -> {
+                    // Non-expanded tag: one of every item in the tag
+                    for (var holder : BuiltInRegistries.ITEM.getTagOrEmpty(TagKey.create(Registries.ITEM, tag))) {
+                        loot.add(BuiltInRegistries.ITEM.getKey(holder.value()), 1, 1);
+                    }
+                });
+                default -> {
+                    // empty, dynamic: no items
+                }
+            }
+            return loot;
+        }
+
+        private void applyFunctions(Yield loot, List<LootFunction> functions) {
+            for (LootFunction function : functions) {
+                if (!function.isSetCount() || !function.parameters().has("count")) {
+                    continue;
+                }
+                double chance = conditionsProbability(function.conditions());
+                if (chance == 0) continue;
+
+                double count = expectedInt(function.parameters().get("count"));
+                boolean add = function.parameters().has("add") && function.parameters().get("add").getAsBoolean();
+                for (double[] v : loot.items.values()) {
+                    double set = add ? v[0] + v[1] * count : v[1] * count;
+                    v[0] = chance * set + (1 - chance) * v[0];
+                }
+            }
+        }
+
+        private double expectedBonusRolls(NumberProvider bonusRolls) {
+            if (luck == 0) return 0;
+            if (bonusRolls instanceof NumberProvider.Constant c) {
+                return Math.floor(c.value() * luck);
+            }
+            approximate = true;
+            return Math.max(0, Math.floor(expectedFloat(bonusRolls) * luck));
+        }
+
+        // ===== Number providers =====
+
+        private double expectedInt(NumberProvider provider) {
+            return switch (provider) {
+                case NumberProvider.Constant c -> Math.round(c.value());
+                case NumberProvider.Uniform u -> uniformInt(Math.round(u.min()), Math.round(u.max()));
+                case NumberProvider.Binomial b -> b.n() * (double) b.p();
+            };
+        }
+
+        private double expectedFloat(NumberProvider provider) {
+            return switch (provider) {
+                case NumberProvider.Constant c -> c.value();
+                case NumberProvider.Uniform u -> (u.min() + u.max()) / 2.0;
+                case NumberProvider.Binomial b -> b.n() * (double) b.p();
+            };
+        }
+
+        private double expectedInt(JsonElement element) {
+            if (element.isJsonPrimitive()) {
+                return Math.round(element.getAsFloat());
+            }
+            if (!element.isJsonObject()) {
+                approximate = true;
+                return 1;
+            }
+            JsonObject obj = element.getAsJsonObject();
+            String type = stripNamespace(obj.has("type") ? obj.get("type").getAsString() : "uniform");
+            return switch (type) {
+                case "constant" -> Math.round(obj.has("value") ? obj.get("value").getAsFloat() : 1);
+                case "uniform" -> uniformInt(
+                    obj.has("min") ? Math.round(expectedFloat(obj.get("min"))) : 0,
+                    obj.has("max") ? Math.round(expectedFloat(obj.get("max"))) : 0);
+                case "binomial" -> (obj.has("n") ? Math.round(expectedFloat(obj.get("n"))) : 1)
+                    * (obj.has("p") ? expectedFloat(obj.get("p")) : 0.5);
+                default -> {
+                    approximate = true;
+                    yield 1;
+                }
+            };
+        }
+
+        private double expectedFloat(JsonElement element) {
+            if (element.isJsonPrimitive()) {
+                return element.getAsFloat();
+            }
+            if (!element.isJsonObject()) {
+                approximate = true;
+                return 1;
+            }
+            JsonObject obj = element.getAsJsonObject();
+            String type = stripNamespace(obj.has("type") ? obj.get("type").getAsString() : "uniform");
+            return switch (type) {
+                case "constant" -> obj.has("value") ? obj.get("value").getAsFloat() : 1;
+                case "uniform" -> ((obj.has("min") ? expectedFloat(obj.get("min")) : 0)
+                    + (obj.has("max") ? expectedFloat(obj.get("max")) : 0)) / 2.0;
+                case "binomial" -> (obj.has("n") ? Math.round(expectedFloat(obj.get("n"))) : 1)
+                    * (obj.has("p") ? expectedFloat(obj.get("p")) : 0.5);
+                default -> {
+                    approximate = true;
+                    yield 1;
+                }
+            };
+        }
+
+        // Mth.nextInt(min, max): inclusive, min when the range is empty
+        private static double uniformInt(long min, long max) {
+            return max <= min ? min : (min + max) / 2.0;
+        }
+
+        // ===== Conditions =====
+
+        private double conditionsProbability(List<LootCondition> conditions) {
+            double p = 1.0;
+            for (LootCondition condition : conditions) {
+                p *= conditionProbability(condition.condition(), condition.parameters());
+            }
+            return p;
+        }
+
+        /**
+         * Chance a condition passes when a chest is opened. Conditions that do
+         * not depend on randomness are treated as passing, as in generation.
+         */
+        private double conditionProbability(String condition, JsonObject params) {
+            switch (stripNamespace(condition)) {
+                case "random_chance" -> {
+                    return params.has("chance") ? clamp(expectedFloat(params.get("chance"))) : 1;
+                }
+                case "random_chance_with_enchanted_bonus" -> {
+                    // No looting enchantment applies when a chest is opened
+                    if (params.has("unenchanted_chance")) {
+                        return clamp(params.get("unenchanted_chance").getAsFloat());
+                    }
+                    return params.has("chance") ? clamp(params.get("chance").getAsFloat()) : 1;
+                }
+                case "inverted" -> {
+                    return params.has("term") && params.get("term").isJsonObject()
+                        ? 1 - nestedProbability(params.getAsJsonObject("term"))
+                        : 1;
+                }
+                case "all_of" -> {
+                    double p = 1;
+                    for (JsonObject term : terms(params)) p *= nestedProbability(term);
+                    return p;
+                }
+                case "any_of", "alternative" -> {
+                    double none = 1;
+                    for (JsonObject term : terms(params)) none *= 1 - nestedProbability(term);
+                    return 1 - none;
+                }
+                default -> {
+                    return 1;
+                }
+            }
+        }
+
+        private double nestedProbability(JsonObject json) {
+            String condition = json.has("condition") ? json.get("condition").getAsString() : "";
+            return conditionProbability(condition, json);
+        }
+
+        private List<JsonObject> terms(JsonObject params) {
+            List<JsonObject> terms = new ArrayList<>();
+            if (params.has("terms") && params.get("terms").isJsonArray()) {
+                JsonArray array = params.getAsJsonArray("terms");
+                for (JsonElement term : array) {
+                    if (term.isJsonObject()) terms.add(term.getAsJsonObject());
+                }
+            }
+            return terms;
+        }
+    }
+
+    private static TableExpectation toExpectation(ResourceLocation tableId, Yield loot,
+                                                  boolean cyclic, boolean approximate) {
+        List<ItemExpectation> items = new ArrayList<>(loot.items.size());
+        double stacks = 0;
+        double count = 0;
+        for (var entry : loot.items.entrySet()) {
+            double[] v = entry.getValue();
+            if (v[0] <= 0 && v[1] <= 0) continue;
+            items.add(new ItemExpectation(entry.getKey(), v[0], v[1]));
+            stacks += v[1];
+            count += v[0];
+        }
+        items.sort(Comparator.comparingDouble(ItemExpectation::expectedCount).reversed());
+        return new TableExpectation(tableId, List.copyOf(items), stacks, count, cyclic, approximate);
+    }
+
+    private static Yield fromExpectation(TableExpectation expectation) {
+        Yield loot = new Yield();
+        for (ItemExpectation item : expectation.items()) {
+            loot.add(item.item(), item.expectedCount(), item.expectedStacks());
+        }
+        return loot;
+    }
+
+    private static String stripNamespace(String id) {
+        return id.startsWith("minecraft:") ? id.substring("minecraft:".length()) : id;
+    }
+
+    private static double clamp(double chance) {
+        return Math.max(0, Math.min(1, chance));
+    }
+}
@@ -14,9 +14,7 @@ import net.minecraft.world.level.levelgen.WorldOptions;
 import net.minecraft.world.level.levelgen.presets.WorldPresets;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -85,6 +83,20 @@ public final class HeadlessAnalysisWorld {
 
         reportProgress("Initializing observation world...");
 
+        // Reuse a previously generated world when available
+        WorldTemplateStore templates = WorldTemplateStore.getInstance();
+        if (templates.isEnabled() && templates.restore(ANALYSIS_WORLD_NAME)) {
+            minecraft.execute(() -> {
+                reportProgress("Loading observation world from template...");
+                minecraft.createWorldOpenFlows().openWorld(ANALYSIS_WORLD_NAME, () -> {
+                    if (completionCallback != null) {
+                        completionCallback.accept(false);
+                    }
+                });
+            });
+            return;
+        }
+
         // Create world on the main thread
         minecraft.execute(() -> {
             try {
@@ -142,6 +154,13 @@ public final class HeadlessAnalysisWorld {
         this.serverRef.set(server);
         this.worldReady.set(true);
 
+        // Capture the untouched world before any structures are placed into it
+        WorldTemplateStore templates = WorldTemplateStore.getInstance();
+        if (templates.isEnabled() && !templates.hasTemplate(ANALYSIS_WORLD_NAME)) {
+            server.saveEverything(true, true, true);
+            templates.capture(ANALYSIS_WORLD_NAME);
+        }
+
         reportProgress("Observation world ready - starting structure placement...");
 
         // Run observation session
@@ -217,27 +236,12 @@ public final class HeadlessAnalysisWorld {
     }
 
     private void cleanupAnalysisWorld() {
-        try {
-            Minecraft minecraft = Minecraft.getInstance();
-            Path savesDir = minecraft.gameDirectory.toPath().resolve("saves");
-            Path analysisDir = savesDir.resolve(ANALYSIS_WORLD_NAME);
-
-            if (Files.exists(analysisDir)) {
-                Isotope.LOGGER.info("Cleaning up analysis world folder: {}", analysisDir);
-
-                Files.walk(analysisDir)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            Isotope.LOGGER.warn("Failed to delete: {}", path);
-                        }
-                    });
-            }
-        } catch (IOException e) {
-            Isotope.LOGGER.warn("Failed to cleanup analysis world", e);
-        }
+        Path analysisDir = Minecraft.getInstance().gameDirectory.toPath()
+            .resolve("saves")
+            .resolve(ANALYSIS_WORLD_NAME);
+
+        Isotope.LOGGER.info("Cleaning up analysis world folder: {}", analysisDir);
+        WorldTemplateStore.deleteDirectory(analysisDir);
     }
 
     public boolean isAnalysisWorld(MinecraftServer server) {
@@ -0,0 +1,254 @@
+package dev.isotope.analysis;
+
+import dev.isotope.Isotope;
+import dev.isotope.data.loot.LootTableStructure;
+import dev.isotope.editing.CompiledLootTable;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo loot simulation.
+ *
+ * Rolls a loot table many times (1e6 and up) on a fork-join pool and reports
+ * empirical per-item results: chance to appear per roll with a 95% Wilson
+ * confidence interval, mean count, and a histogram of counts per roll.
+ *
+ * The roll range is split recursively; every leaf gets its own SplittableRandom
+ * (split from its parent, so a seed always gives the same result) and its own
+ * accumulators, which are merged as the tasks join.
+ */
+public final class LootSimulator {
+
+    private static final LootSimulator INSTANCE = new LootSimulator();
+
+    public static final int DEFAULT_ROLLS = 1_000_000;
+
+    // Rolls handled by a single leaf task
+    private static final int LEAF_ROLLS = 8192;
+
+    // Count histogram buckets: 0..HISTOGRAM_SIZE-2 exact, last bucket is "or more"
+    public static final int HISTOGRAM_SIZE = 65;
+
+    // z for a two-sided 95% interval
+    private static final double Z_95 = 1.959964;
+
+    private final ForkJoinPool pool = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    private LootSimulator() {}
+
+    public static LootSimulator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Simulate a loot table on the simulation pool.
+     * Cancelling the returned future stops the remaining work.
+     */
+    public CompletableFuture<SimulationResult> simulateAsync(LootTableStructure table, int rolls, long seed) {
+        CompletableFuture<SimulationResult> future = new CompletableFuture<>();
+        pool.execute(() -> {
+            try {
+                SimulationResult result = run(CompiledLootTable.compile(table), rolls, seed, future);
+                if (result != null) {
+                    future.complete(result);
+                }
+            } catch (Exception e) {
+                Isotope.LOGGER.error("Loot simulation failed for {}: {}", table.id(), e.getMessage());
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Simulate a loot table and wait for the result.
+     */
+    public SimulationResult simulate(LootTableStructure table, int rolls, long seed) {
+        return simulateAsync(table, rolls, seed).join();
+    }
+
+    private SimulationResult run(CompiledLootTable plan, int rolls, long seed,
+                                 CompletableFuture<SimulationResult> future) {
+        long start = System.nanoTime();
+
+        Accumulator total = pool.invoke(new RollTask(plan, 0, rolls, new SplittableRandom(seed), future));
+        if (future.isDone()) {
+            return null; // Cancelled
+        }
+
+        long nanos = System.nanoTime() - start;
+        List<ItemResult> items = new ArrayList<>(total.items.size());
+        total.items.forEach((item, acc) -> items.add(acc.toResult(BuiltInRegistries.ITEM.getKey(item), rolls)));
+        items.sort(Comparator.comparingDouble(ItemResult::probability).reversed());
+
+        Isotope.LOGGER.debug("Simulated {} rolls of {} in {} ms", rolls, plan.tableId(), nanos / 1_000_000);
+        return new SimulationResult(plan.tableId(), rolls, total.stacks / (double) rolls, items, nanos / 1_000_000);
+    }
+
+    /**
+     * Result of a simulation run.
+     */
+    public record SimulationResult(
+        ResourceLocation tableId,
+        int rolls,
+        double meanStacksPerRoll,
+        List<ItemResult> items,
+        long durationMillis
+    ) {
+        /**
+         * Results keyed by item, for lookups from per-entry views.
+         */
+        public Map<ResourceLocation, ItemResult> byItem() {
+            Map<ResourceLocation, ItemResult> map = new HashMap<>();
+            for (ItemResult item : items) {
+                map.put(item.item(), item);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Empirical statistics for one item.
+     *
+     * @param probability Fraction of rolls that produced the item at least once
+     * @param lowerBound Lower end of the 95% Wilson interval for probability
+     * @param upperBound Upper end of the 95% Wilson interval for probability
+     * @param meanCount Mean total count of the item per roll (including rolls without it)
+     * @param countHistogram Rolls by total count of the item; the last bucket holds that count or more
+     */
+    public record ItemResult(
+        ResourceLocation item,
+        double probability,
+        double lowerBound,
+        double upperBound,
+        double meanCount,
+        long[] countHistogram
+    ) {
+        public double percentChance() {
+            return probability * 100;
+        }
+    }
+
+    private static final class RollTask extends RecursiveTask<Accumulator> {
+        private final CompiledLootTable plan;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        private final CompletableFuture<?> future;
+
+        RollTask(CompiledLootTable plan, int from, int to, SplittableRandom random, CompletableFuture<?> future) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+            this.future = future;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= LEAF_ROLLS) {
+                return rollLeaf();
+            }
+
+            int mid = (from + to) >>> 1;
+            RollTask left = new RollTask(plan, from, mid, random.split(), future);
+            RollTask right = new RollTask(plan, mid, to, random, future);
+            left.fork();
+            Accumulator result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        private Accumulator rollLeaf() {
+            Accumulator acc = new Accumulator();
+            if (future.isDone()) {
+                return acc;
+            }
+
+            for (int i = from; i < to; i++) {
+                plan.generate(random, stack -> acc.add(stack.getItem(), stack.getCount()));
+                acc.endRoll();
+            }
+            return acc;
+        }
+    }
+
+    /**
+     * Per-task counters. Items touched in the current roll are tracked so
+     * the per-roll totals can be folded without scanning every item.
+     */
+    private static final class Accumulator {
+        final Map<Item, ItemAccumulator> items = new IdentityHashMap<>();
+        final List<ItemAccumulator> touched = new ArrayList<>();
+        long stacks = 0;
+
+        void add(Item item, int count) {
+            ItemAccumulator acc = items.computeIfAbsent(item, k -> new ItemAccumulator());
+            if (acc.currentRoll == 0) {
+                touched.add(acc);
+            }
+            acc.currentRoll += count;
+            stacks++;
+        }
+
+        void endRoll() {
+            for (ItemAccumulator acc : touched) {
+                acc.rollsWithItem++;
+                acc.totalCount += acc.currentRoll;
+                acc.histogram[(int) Math.min(acc.currentRoll, HISTOGRAM_SIZE - 1)]++;
+                acc.currentRoll = 0;
+            }
+            touched.clear();
+        }
+
+        void merge(Accumulator other) {
+            stacks += other.stacks;
+            other.items.forEach((item, acc) -> items.merge(item, acc, ItemAccumulator::merge));
+        }
+    }
+
+    private static final class ItemAccumulator {
+        long currentRoll = 0;
+        long rollsWithItem = 0;
+        long totalCount = 0;
+        final long[] histogram = new long[HISTOGRAM_SIZE];
+
+        ItemAccumulator merge(ItemAccumulator other) {
+            rollsWithItem += other.rollsWithItem;
+            totalCount += other.totalCount;
+            for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            return this;
+        }
+
+        ItemResult toResult(ResourceLocation itemId, int rolls) {
+            double p = rollsWithItem / (double) rolls;
+
+            // Wilson score interval
+            double z2 = Z_95 * Z_95;
+            double denominator = 1 + z2 / rolls;
+            double center = (p + z2 / (2.0 * rolls)) / denominator;
+            double margin = Z_95 * Math.sqrt(p * (1 - p) / rolls + z2 / (4.0 * rolls * rolls)) / denominator;
+
+            long[] counts = histogram.clone();
+            counts[0] = rolls - rollsWithItem;
+
+            return new ItemResult(
+                itemId,
+                p,
+                Math.max(0, center - margin),
+                Math.min(1, center + margin),
+                totalCount / (double) rolls,
+                counts
+            );
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package dev.isotope.analysis;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import dev.architectury.platform.Platform;
+import dev.isotope.Isotope;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps pre-generated copies of ISOTOPE's temporary worlds on disk.
+ *
+ * When enabled, the first run of a temp world captures it as a template and
+ * later runs restore the template with a directory copy instead of creating
+ * and spawn-generating a fresh world. Templates are tied to the Minecraft
+ * version and mod list, and are discarded when either changes.
+ *
+ * Templates are copied rather than hard-linked: region files are rewritten
+ * in place, so a hard link would let a run modify the template.
+ *
+ * Persists settings to .minecraft/isotope/world-templates/templates.json
+ */
+public final class WorldTemplateStore {
+
+    private static final WorldTemplateStore INSTANCE = new WorldTemplateStore();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Never copy the lock of a running world
+    private static final String SESSION_LOCK = "session.lock";
+
+    private boolean enabled = false;
+    private JsonObject fingerprints = new JsonObject();
+    private boolean loaded = false;
+
+    private WorldTemplateStore() {}
+
+    public static WorldTemplateStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check if world template reuse is enabled.
+     */
+    public synchronized boolean isEnabled() {
+        ensureLoaded();
+        return enabled;
+    }
+
+    /**
+     * Enable or disable world template reuse.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        ensureLoaded();
+        this.enabled = enabled;
+        saveToDisk();
+    }
+
+    /**
+     * Check if a usable template exists for a world.
+     */
+    public synchronized boolean hasTemplate(String worldName) {
+        ensureLoaded();
+        return Files.isDirectory(getTemplateDir(worldName))
+            && fingerprints.has(worldName)
+            && fingerprints.get(worldName).getAsString().equals(currentFingerprint());
+    }
+
+    /**
+     * Restore a world's template into the saves folder.
+     * The target world folder must not exist.
+     *
+     * @return true if the template was restored
+     */
+    public synchronized boolean restore(String worldName) {
+        if (!hasTemplate(worldName)) {
+            return false;
+        }
+
+        Path target = getSavesDir().resolve(worldName);
+        long start = System.nanoTime();
+        try {
+            copyDirectory(getTemplateDir(worldName), target);
+            Isotope.LOGGER.info("Restored world template {} in {} ms",
+                worldName, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to restore world template {}: {}", worldName, e.getMessage());
+            deleteDirectory(target);
+            return false;
+        }
+    }
+
+    /**
+     * Capture a world folder as the template for that world.
+     * The world should be saved (or closed) before calling this.
+     */
+    public synchronized void capture(String worldName) {
+        Path source = getSavesDir().resolve(worldName);
+        Path templateDir = getTemplateDir(worldName);
+
+        try {
+            deleteDirectory(templateDir);
+            copyDirectory(source, templateDir);
+
+            ensureLoaded();
+            fingerprints.addProperty(worldName, currentFingerprint());
+            saveToDisk();
+
+            Isotope.LOGGER.info("Captured world template for {}", worldName);
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to capture world template {}: {}", worldName, e.getMessage());
+            deleteDirectory(templateDir);
+        }
+    }
+
+    /**
+     * Delete all stored templates.
+     */
+    public synchronized void clear() {
+        ensureLoaded();
+        for (String worldName : fingerprints.keySet()) {
+            deleteDirectory(getTemplateDir(worldName));
+        }
+        fingerprints = new JsonObject();
+        saveToDisk();
+        Isotope.LOGGER.info("Cleared world templates");
+    }
+
+    /**
+     * Recursively delete a directory, ignoring files that cannot be removed.
+     */
+    public static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder())
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        Isotope.LOGGER.warn("Failed to delete: {}", path);
+                    }
+                });
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to delete directory {}", dir, e);
+        }
+    }
+
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!SESSION_LOCK.equals(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file).toString()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Identify the game setup a template was generated with.
+     */
+    private static String currentFingerprint() {
+        String mods = Platform.getMods().stream()
+            .map(mod -> mod.getModId() + "@" + mod.getVersion())
+            .sorted()
+            .collect(Collectors.joining(","));
+        return SharedConstants.getCurrentVersion().getName() + "|" + mods;
+    }
+
+    private static Path getSavesDir() {
+        return Minecraft.getInstance().gameDirectory.toPath().resolve("saves");
+    }
+
+    private static Path getRootDir() {
+        return Minecraft.getInstance().gameDirectory.toPath()
+            .resolve("isotope")
+            .resolve("world-templates");
+    }
+
+    private static Path getTemplateDir(String worldName) {
+        return getRootDir().resolve(worldName);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadFromDisk();
+            loaded = true;
+        }
+    }
+
+    private void saveToDisk() {
+        try {
+            Path path = getRootDir().resolve("templates.json");
+            Files.createDirectories(path.getParent());
+
+            JsonObject root = new JsonObject();
+            root.addProperty("enabled", enabled);
+            root.add("fingerprints", fingerprints);
+
+            Files.writeString(path, GSON.toJson(root));
+        } catch (IOException e) {
+            Isotope.LOGGER.error("Failed to save world template settings", e);
+        }
+    }
+
+    private void loadFromDisk() {
+        Path path = getRootDir().resolve("templates.json");
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            JsonObject root = GSON.fromJson(Files.readString(path), JsonObject.class);
+            enabled = root.has("enabled") && root.get("enabled").getAsBoolean();
+            if (root.has("fingerprints")) {
+                fingerprints = root.getAsJsonObject("fingerprints");
+            }
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to load world template settings", e);
+        }
+    }
+}
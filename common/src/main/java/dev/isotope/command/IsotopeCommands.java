@@ -1,12 +1,20 @@
 package dev.isotope.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import dev.architectury.event.events.common.CommandRegistrationEvent;
 import dev.isotope.Isotope;
+import dev.isotope.analysis.WorldTemplateStore;
+import dev.isotope.editing.LootTableParseCache;
+import dev.isotope.observation.ObservationCache;
 import dev.isotope.observation.ObservationSession;
+import dev.isotope.observation.StructurePlacementEngine;
+import dev.isotope.search.LootQuery;
+import dev.isotope.search.SearchHit;
+import dev.isotope.search.SearchIndex;
 import net.minecraft.commands.CommandBuildContext;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -14,6 +22,7 @@ import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.commands.arguments.ResourceLocationArgument;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 
 import java.util.*;
 
@@ -62,6 +71,39 @@ public final class IsotopeCommands {
                         .executes(IsotopeCommands::analyzeStructure)))
                 .then(Commands.literal("session")
                     .executes(IsotopeCommands::sessionStatus))
+                .then(Commands.literal("placement")
+                    .executes(IsotopeCommands::placementMode)
+                    .then(Commands.literal("parallel")
+                        .executes(ctx -> setPlacementMode(ctx, true)))
+                    .then(Commands.literal("serial")
+                        .executes(ctx -> setPlacementMode(ctx, false))))
+                .then(Commands.literal("samples")
+                    .executes(IsotopeCommands::sampleCount)
+                    .then(Commands.argument("count", IntegerArgumentType.integer(1, 64))
+                        .executes(ctx -> setSampleCount(ctx, IntegerArgumentType.getInteger(ctx, "count")))))
+                .then(Commands.literal("incremental")
+                    .executes(IsotopeCommands::incrementalMode)
+                    .then(Commands.literal("on")
+                        .executes(ctx -> setIncrementalMode(ctx, true)))
+                    .then(Commands.literal("off")
+                        .executes(ctx -> setIncrementalMode(ctx, false)))
+                    .then(Commands.literal("clear")
+                        .executes(IsotopeCommands::clearObservationCache)))
+                .then(Commands.literal("worldtemplate")
+                    .executes(IsotopeCommands::worldTemplateMode)
+                    .then(Commands.literal("on")
+                        .executes(ctx -> setWorldTemplateMode(ctx, true)))
+                    .then(Commands.literal("off")
+                        .executes(ctx -> setWorldTemplateMode(ctx, false)))
+                    .then(Commands.literal("clear")
+                        .executes(IsotopeCommands::clearWorldTemplates)))
+                .then(Commands.literal("parsecache")
+                    .executes(IsotopeCommands::parseCacheStatus)
+                    .then(Commands.literal("clear")
+                        .executes(IsotopeCommands::clearParseCache)))
+                .then(Commands.literal("query")
+                    .then(Commands.argument("query", StringArgumentType.greedyString())
+                        .executes(IsotopeCommands::runQuery)))
         );
     }
 
@@ -187,6 +229,11 @@ public final class IsotopeCommands {
             return 1;
         }
 
+        var stats = data.statistics();
+        if (stats.placements() > 1) {
+            source.sendSuccess(() -> Component.literal("Samples: " + stats.placements()), false);
+        }
+
         source.sendSuccess(() -> Component.literal("Loot tables (" + data.lootTableCount() + "):"), false);
 
         int count = 0;
@@ -212,7 +259,11 @@ public final class IsotopeCommands {
                     source.sendSuccess(() -> Component.literal("... and " + remaining + " more"), false);
                     break;
                 }
-                source.sendSuccess(() -> Component.literal("  " + itemId), false);
+                var itemStats = stats.items().get(itemId);
+                String itemStr = String.format("  %s (%.2f stacks/placement, count %.2f +/- %.2f)",
+                    itemId, stats.itemFrequency(itemId),
+                    itemStats.meanStackCount(), Math.sqrt(itemStats.stackCountVariance()));
+                source.sendSuccess(() -> Component.literal(itemStr), false);
             }
         }
 
@@ -234,6 +285,8 @@ public final class IsotopeCommands {
             source.sendSuccess(() -> Component.literal("  Loot invocations: " + result.lootInvocations()), false);
             source.sendSuccess(() -> Component.literal("  Structures with loot: " + result.structuresWithLoot()), false);
             source.sendSuccess(() -> Component.literal("  Unique loot tables: " + result.uniqueLootTables()), false);
+            source.sendSuccess(() -> Component.literal("  Samples: " + result.samples()), false);
+            source.sendSuccess(() -> Component.literal("  Reused from cache: " + result.structuresReused()), false);
 
             if (!result.failedStructures().isEmpty()) {
                 source.sendSuccess(() -> Component.literal("Failed structures:"), false);
@@ -245,4 +298,152 @@ public final class IsotopeCommands {
 
         return 1;
     }
+
+    private static int placementMode(CommandContext<CommandSourceStack> ctx) {
+        boolean parallel = StructurePlacementEngine.getInstance().isParallelPlacement();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Structure placement mode: " + (parallel ? "parallel" : "serial")), false);
+        return 1;
+    }
+
+    private static int setPlacementMode(CommandContext<CommandSourceStack> ctx, boolean parallel) {
+        StructurePlacementEngine.getInstance().setParallelPlacement(parallel);
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Structure placement mode set to " + (parallel ? "parallel" : "serial") +
+            " (applies to the next observation session)"), false);
+        return 1;
+    }
+
+    private static int sampleCount(CommandContext<CommandSourceStack> ctx) {
+        int samples = ObservationSession.getInstance().getSampleCount();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Observation samples per structure: " + samples), false);
+        return 1;
+    }
+
+    private static int setSampleCount(CommandContext<CommandSourceStack> ctx, int samples) {
+        ObservationSession.getInstance().setSampleCount(samples);
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Observation samples per structure set to " + samples +
+            " (applies to the next observation session)"), false);
+        return 1;
+    }
+
+    private static int incrementalMode(CommandContext<CommandSourceStack> ctx) {
+        boolean incremental = ObservationSession.getInstance().isIncremental();
+        var cache = ObservationCache.getInstance();
+        int cached = cache.size();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Incremental re-analysis: " + (incremental ? "on" : "off") +
+            " (" + cached + " structures cached)"), false);
+        cache.getLastResult().ifPresent(result -> ctx.getSource().sendSuccess(() -> Component.literal(
+            "Cached session: " + result.structuresPlaced() + " structures placed, " +
+            result.structuresWithLoot() + " with loot, " + result.samples() + " samples"), false));
+        return 1;
+    }
+
+    private static int setIncrementalMode(CommandContext<CommandSourceStack> ctx, boolean incremental) {
+        ObservationSession.getInstance().setIncremental(incremental);
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Incremental re-analysis turned " + (incremental ? "on" : "off") +
+            " (applies to the next observation session)"), false);
+        if (incremental) {
+            ctx.getSource().sendSuccess(() -> Component.literal(
+                "Changes to processors, nested jigsaw pools or templates are not detected; " +
+                "use /isotope incremental clear after changing them"), false);
+        }
+        return 1;
+    }
+
+    private static int clearObservationCache(CommandContext<CommandSourceStack> ctx) {
+        ObservationCache.getInstance().clear();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Observation cache cleared (all structures are observed on the next session)"), false);
+        return 1;
+    }
+
+    private static int worldTemplateMode(CommandContext<CommandSourceStack> ctx) {
+        boolean enabled = WorldTemplateStore.getInstance().isEnabled();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "World template reuse: " + (enabled ? "on" : "off")), false);
+        return 1;
+    }
+
+    private static int setWorldTemplateMode(CommandContext<CommandSourceStack> ctx, boolean enabled) {
+        WorldTemplateStore.getInstance().setEnabled(enabled);
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "World template reuse turned " + (enabled ? "on" : "off")), false);
+        return 1;
+    }
+
+    private static int clearWorldTemplates(CommandContext<CommandSourceStack> ctx) {
+        WorldTemplateStore.getInstance().clear();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "World templates cleared (regenerated on the next run)"), false);
+        return 1;
+    }
+
+    private static int parseCacheStatus(CommandContext<CommandSourceStack> ctx) {
+        var cache = LootTableParseCache.getInstance();
+        int entries = cache.size();
+        int hits = cache.getHits();
+        int misses = cache.getMisses();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Loot table parse cache: " + entries + " entries (last pre-parse: " +
+            hits + " cached, " + misses + " parsed)"), false);
+        return 1;
+    }
+
+    private static int clearParseCache(CommandContext<CommandSourceStack> ctx) {
+        LootTableParseCache.getInstance().clear();
+        ctx.getSource().sendSuccess(() -> Component.literal(
+            "Loot table parse cache cleared (all tables are parsed on the next start)"), false);
+        return 1;
+    }
+
+    private static int runQuery(CommandContext<CommandSourceStack> ctx) {
+        CommandSourceStack source = ctx.getSource();
+        String query = StringArgumentType.getString(ctx, "query");
+
+        LootQuery parsed;
+        try {
+            parsed = LootQuery.parse(query);
+        } catch (IllegalArgumentException e) {
+            source.sendFailure(Component.literal("Invalid query: " + e.getMessage()));
+            return 0;
+        }
+
+        // Building the query columns can take a while; keep it off the server thread
+        MinecraftServer server = source.getServer();
+        SearchIndex.getInstance().queryAsync(parsed, SearchIndex.View.EDITED)
+            .whenComplete((hits, error) -> server.execute(() -> {
+                if (error != null) {
+                    source.sendFailure(Component.literal("Query failed: " + error.getMessage()));
+                } else {
+                    sendQueryResults(source, hits);
+                }
+            }));
+        return 1;
+    }
+
+    private static void sendQueryResults(CommandSourceStack source, List<SearchHit> hits) {
+        if (hits.isEmpty()) {
+            source.sendFailure(Component.literal("No matches"));
+            return;
+        }
+
+        source.sendSuccess(() -> Component.literal(
+            hits.size() + " match" + (hits.size() == 1 ? "" : "es") + ":"), false);
+        int shown = 0;
+        for (SearchHit hit : hits) {
+            if (shown >= 20) {
+                int remaining = hits.size() - shown;
+                source.sendSuccess(() -> Component.literal("... and " + remaining + " more"), false);
+                break;
+            }
+            String line = "  " + hit.table() + " - " + hit.context();
+            source.sendSuccess(() -> Component.literal(line), false);
+            shown++;
+        }
+    }
 }
@@ -12,7 +12,7 @@ public sealed interface NumberProvider permits
     /**
      * Get a sample value from this provider.
      */
-    float sample(java.util.Random random);
+    float sample(java.util.random.RandomGenerator random);
 
     /**
      * Get the minimum possible value.
@@ -29,7 +29,7 @@ public sealed interface NumberProvider permits
      */
     record Constant(float value) implements NumberProvider {
         @Override
-        public float sample(java.util.Random random) {
+        public float sample(java.util.random.RandomGenerator random) {
             return value;
         }
 
@@ -54,7 +54,7 @@ public sealed interface NumberProvider permits
      */
     record Uniform(float min, float max) implements NumberProvider {
         @Override
-        public float sample(java.util.Random random) {
+        public float sample(java.util.random.RandomGenerator random) {
             return min + random.nextFloat() * (max - min);
         }
 
@@ -79,7 +79,7 @@ public sealed interface NumberProvider permits
      */
     record Binomial(int n, float p) implements NumberProvider {
         @Override
-        public float sample(java.util.Random random) {
+        public float sample(java.util.random.RandomGenerator random) {
             int result = 0;
             for (int i = 0; i < n; i++) {
                 if (random.nextFloat() < p) {
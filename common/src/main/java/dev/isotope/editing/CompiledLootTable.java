@@ -0,0 +1,493 @@
+package dev.isotope.editing;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.isotope.Isotope;
+import dev.isotope.data.loot.*;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Immutable evaluation plan compiled from a LootTableStructure.
+ *
+ * Compilation resolves item references, builds a weighted selector per pool
+ * and binds function/condition handlers once, so generation only walks arrays
+ * and allocates the ItemStacks it produces. Handlers that can never affect the
+ * result (unsupported functions, conditions that always pass) are dropped at
+ * compile time.
+ *
+ * Entry selection uses Math.max(1, weight) for every entry:
+ * - small pools: binary search over cumulative weights
+ * - pools with at least {@value #ALIAS_MIN_ENTRIES} entries: Vose alias table, O(1) per roll
+ * - pools whose entries have random_chance conditions: linear scan over the
+ *   entries that pass their conditions on that roll
+ */
+public final class CompiledLootTable {
+
+    // Pools at least this large use an alias table instead of binary search
+    static final int ALIAS_MIN_ENTRIES = 32;
+
+    private final ResourceLocation tableId;
+    private final CompiledPool[] pools;
+
+    private CompiledLootTable(ResourceLocation tableId, CompiledPool[] pools) {
+        this.tableId = tableId;
+        this.pools = pools;
+    }
+
+    /**
+     * Compile a loot table structure into an evaluation plan.
+     */
+    public static CompiledLootTable compile(LootTableStructure structure) {
+        CompiledPool[] pools = new CompiledPool[structure.pools().size()];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = compilePool(structure.pools().get(i));
+        }
+        return new CompiledLootTable(structure.id(), pools);
+    }
+
+    public ResourceLocation tableId() {
+        return tableId;
+    }
+
+    /**
+     * Generate loot with a fresh random seeded from {@code seed}.
+     */
+    public void generate(long seed, Consumer<ItemStack> consumer) {
+        generate(new Random(seed), consumer);
+    }
+
+    /**
+     * Generate loot using the given random source.
+     * Any generator works; simulations pass a per-worker SplittableRandom.
+     */
+    public void generate(RandomGenerator random, Consumer<ItemStack> consumer) {
+        // Items of one entry are collected before pool functions run on them
+        Scratch buffer = new Scratch();
+
+        for (CompiledPool pool : pools) {
+            if (!pool.passesConditions(random)) {
+                continue;
+            }
+
+            int totalRolls = (int) pool.rolls.sample(random) + (int) pool.bonusRolls.sample(random);
+            for (int i = 0; i < totalRolls; i++) {
+                if (pool.entries.length == 0) {
+                    break;
+                }
+
+                int selected = pool.selector.select(random, buffer);
+                if (selected < 0) {
+                    continue;
+                }
+
+                buffer.size = 0;
+                pool.entries[selected].emit(random, buffer);
+
+                for (int k = 0; k < buffer.size; k++) {
+                    ItemStack stack = buffer.stacks[k];
+                    buffer.stacks[k] = null;
+                    for (FunctionHandler function : pool.functions) {
+                        function.apply(stack, random);
+                    }
+                    if (!stack.isEmpty()) {
+                        consumer.accept(stack);
+                    }
+                }
+            }
+        }
+    }
+
+    // ===== Compilation =====
+
+    private static CompiledPool compilePool(LootPool pool) {
+        Node[] entries = new Node[pool.entries().size()];
+        int[] weights = new int[entries.length];
+        float[][] entryConditions = new float[entries.length][];
+        boolean dynamic = false;
+        for (int i = 0; i < entries.length; i++) {
+            LootEntry entry = pool.entries().get(i);
+            entries[i] = compileEntry(entry);
+            weights[i] = Math.max(1, entry.weight());
+            entryConditions[i] = compileConditions(entry.conditions());
+            dynamic |= entryConditions[i].length > 0;
+        }
+
+        return new CompiledPool(
+            pool.rolls(),
+            pool.bonusRolls(),
+            compileConditions(pool.conditions()),
+            entries,
+            compileSelector(weights, entryConditions, dynamic),
+            compileFunctions(pool.functions())
+        );
+    }
+
+    private static Selector compileSelector(int[] weights, float[][] entryConditions, boolean dynamic) {
+        if (weights.length == 0) {
+            return (random, scratch) -> -1;
+        }
+        if (dynamic) {
+            return new DynamicSelector(weights, entryConditions);
+        }
+
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        if (weights.length >= ALIAS_MIN_ENTRIES && total * weights.length <= Integer.MAX_VALUE) {
+            return AliasSelector.build(weights, (int) total);
+        }
+        return CumulativeSelector.build(weights);
+    }
+
+    private static Node compileEntry(LootEntry entry) {
+        switch (entry.type()) {
+            case LootEntry.TYPE_ITEM -> {
+                if (entry.name().isEmpty()) {
+                    return EMPTY;
+                }
+                Item item = resolveItem(entry.name().get());
+                if (item == null) {
+                    return EMPTY;
+                }
+                LootFunction setCount = entry.getSetCountFunction();
+                return new ItemNode(
+                    item,
+                    setCount != null ? setCount.getCountAsNumberProvider() : null,
+                    compileFunctions(entry.functions())
+                );
+            }
+            case LootEntry.TYPE_ALTERNATIVES -> {
+                return new CompositeNode(CompositeNode.ALTERNATIVES, compileChildren(entry));
+            }
+            case LootEntry.TYPE_GROUP -> {
+                return new CompositeNode(CompositeNode.GROUP, compileChildren(entry));
+            }
+            case LootEntry.TYPE_SEQUENCE -> {
+                return new CompositeNode(CompositeNode.SEQUENCE, compileChildren(entry));
+            }
+            case LootEntry.TYPE_EMPTY -> {
+                return EMPTY;
+            }
+            default -> {
+                // Nested tables, tags and dynamic entries are not generated in test mode
+                Isotope.LOGGER.debug("Skipping {} entry: {}", entry.type(),
+                    entry.name().map(ResourceLocation::toString).orElse("unknown"));
+                return EMPTY;
+            }
+        }
+    }
+
+    private static Node[] compileChildren(LootEntry entry) {
+        Node[] children = new Node[entry.children().size()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = compileEntry(entry.children().get(i));
+        }
+        return children;
+    }
+
+    private static Item resolveItem(ResourceLocation itemId) {
+        var itemOpt = BuiltInRegistries.ITEM.get(itemId);
+        if (itemOpt.isEmpty()) {
+            Isotope.LOGGER.warn("Unknown item: {}", itemId);
+            return null;
+        }
+        Item item = itemOpt.get().value();
+        if (item == Items.AIR) {
+            Isotope.LOGGER.warn("Item is AIR: {}", itemId);
+            return null;
+        }
+        return item;
+    }
+
+    private static FunctionHandler[] compileFunctions(List<LootFunction> functions) {
+        List<FunctionHandler> handlers = new ArrayList<>(functions.size());
+        for (LootFunction function : functions) {
+            switch (function.function()) {
+                case "minecraft:set_count" -> {
+                    NumberProvider count = function.getCountAsNumberProvider();
+                    handlers.add((stack, random) -> stack.setCount(Math.max(1, (int) count.sample(random))));
+                }
+                case "minecraft:set_damage" -> {
+                    JsonObject params = function.parameters();
+                    float min = params.has("damage") ? damageBound(params.get("damage"), "min", 0) : 0;
+                    float max = params.has("damage") ? damageBound(params.get("damage"), "max", 1) : 1;
+                    handlers.add((stack, random) -> {
+                        if (stack.isDamageableItem()) {
+                            float damage = min + random.nextFloat() * (max - min);
+                            stack.setDamageValue((int) (stack.getMaxDamage() * (1 - damage)));
+                        }
+                    });
+                }
+                default -> {
+                    // Enchantments, components and other complex functions are not simulated
+                    Isotope.LOGGER.debug("Skipping loot function: {}", function.function());
+                }
+            }
+        }
+        return handlers.toArray(new FunctionHandler[0]);
+    }
+
+    /**
+     * Keep only conditions that can fail. random_chance is the only condition
+     * evaluated in test mode; everything else passes.
+     */
+    private static float[] compileConditions(List<LootCondition> conditions) {
+        float[] chances = new float[conditions.size()];
+        int count = 0;
+        for (LootCondition condition : conditions) {
+            if ("minecraft:random_chance".equals(condition.condition())) {
+                JsonObject params = condition.parameters();
+                chances[count++] = params.has("chance") ? params.get("chance").getAsFloat() : 1.0f;
+            }
+        }
+        return Arrays.copyOf(chances, count);
+    }
+
+    private static float damageBound(JsonElement damage, String key, float fallback) {
+        if (damage.isJsonPrimitive()) {
+            return damage.getAsFloat();
+        } else if (damage.isJsonObject()) {
+            JsonObject obj = damage.getAsJsonObject();
+            return obj.has(key) ? obj.get(key).getAsFloat() : fallback;
+        }
+        return fallback;
+    }
+
+    // ===== Plan =====
+
+    @FunctionalInterface
+    private interface FunctionHandler {
+        void apply(ItemStack stack, RandomGenerator random);
+    }
+
+    private static final class CompiledPool {
+        final NumberProvider rolls;
+        final NumberProvider bonusRolls;
+        final float[] conditionChances;
+        final Node[] entries;
+        final Selector selector;
+        final FunctionHandler[] functions;
+
+        CompiledPool(NumberProvider rolls, NumberProvider bonusRolls, float[] conditionChances,
+                     Node[] entries, Selector selector, FunctionHandler[] functions) {
+            this.rolls = rolls;
+            this.bonusRolls = bonusRolls;
+            this.conditionChances = conditionChances;
+            this.entries = entries;
+            this.selector = selector;
+            this.functions = functions;
+        }
+
+        boolean passesConditions(RandomGenerator random) {
+            return passes(conditionChances, random);
+        }
+    }
+
+    private static boolean passes(float[] chances, RandomGenerator random) {
+        for (float chance : chances) {
+            if (!(random.nextFloat() < chance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks the index of one pool entry per roll, or -1 if no entry is eligible.
+     */
+    private interface Selector {
+        int select(RandomGenerator random, Scratch scratch);
+    }
+
+    /**
+     * Binary search over cumulative weights. One nextInt(total) draw per roll.
+     */
+    private record CumulativeSelector(int[] cumulative) implements Selector {
+        static CumulativeSelector build(int[] weights) {
+            int[] cumulative = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            return new CumulativeSelector(cumulative);
+        }
+
+        @Override
+        public int select(RandomGenerator random, Scratch scratch) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            int index = Arrays.binarySearch(cumulative, roll + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Vose alias table over integer weights.
+     *
+     * Every column holds {@code total} units: {@code threshold[i]} for entry i and the
+     * rest for {@code alias[i]}. A single nextInt(n * total) draw picks a column and an
+     * offset within it, so probabilities are exactly weight / total.
+     */
+    private record AliasSelector(int total, int[] threshold, int[] alias) implements Selector {
+        static AliasSelector build(int[] weights, int total) {
+            int n = weights.length;
+            long[] scaled = new long[n];
+            int[] threshold = new int[n];
+            int[] alias = new int[n];
+
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = (long) weights[i] * n;
+                alias[i] = i;
+                if (scaled[i] < total) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            while (smallCount > 0 && largeCount > 0) {
+                int s = small[--smallCount];
+                int l = large[--largeCount];
+                threshold[s] = (int) scaled[s];
+                alias[s] = l;
+                scaled[l] -= total - scaled[s];
+                if (scaled[l] < total) {
+                    small[smallCount++] = l;
+                } else {
+                    large[largeCount++] = l;
+                }
+            }
+
+            // Whatever is left fills its own column exactly
+            while (largeCount > 0) {
+                threshold[large[--largeCount]] = total;
+            }
+            while (smallCount > 0) {
+                threshold[small[--smallCount]] = total;
+            }
+
+            return new AliasSelector(total, threshold, alias);
+        }
+
+        @Override
+        public int select(RandomGenerator random, Scratch scratch) {
+            int roll = random.nextInt(threshold.length * total);
+            int column = roll / total;
+            return roll - column * total < threshold[column] ? column : alias[column];
+        }
+    }
+
+    /**
+     * Linear scan for pools whose valid entry set changes per roll.
+     * Entry conditions are evaluated in order, then one entry is drawn
+     * from the entries that passed.
+     */
+    private record DynamicSelector(int[] weights, float[][] entryConditions) implements Selector {
+        @Override
+        public int select(RandomGenerator random, Scratch scratch) {
+            int[] valid = scratch.indexes(weights.length);
+            int validCount = 0;
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (passes(entryConditions[i], random)) {
+                    valid[validCount++] = i;
+                    total += weights[i];
+                }
+            }
+
+            if (validCount == 0) {
+                return -1;
+            }
+
+            int roll = random.nextInt(total);
+            int cumulative = 0;
+            for (int k = 0; k < validCount; k++) {
+                cumulative += weights[valid[k]];
+                if (roll < cumulative) {
+                    return valid[k];
+                }
+            }
+            return valid[validCount - 1];
+        }
+    }
+
+    /**
+     * A compiled entry. Emits its items into the buffer and reports whether it produced any.
+     */
+    private interface Node {
+        boolean emit(RandomGenerator random, Scratch out);
+    }
+
+    private static final Node EMPTY = (random, out) -> false;
+
+    private record ItemNode(Item item, NumberProvider initialCount, FunctionHandler[] functions) implements Node {
+        @Override
+        public boolean emit(RandomGenerator random, Scratch out) {
+            int count = initialCount != null ? Math.max(1, (int) initialCount.sample(random)) : 1;
+            ItemStack stack = new ItemStack(item, count);
+            for (FunctionHandler function : functions) {
+                function.apply(stack, random);
+            }
+            out.add(stack);
+            return true;
+        }
+    }
+
+    private record CompositeNode(int kind, Node[] children) implements Node {
+        static final int ALTERNATIVES = 0;
+        static final int GROUP = 1;
+        static final int SEQUENCE = 2;
+
+        @Override
+        public boolean emit(RandomGenerator random, Scratch out) {
+            boolean produced = false;
+            for (Node child : children) {
+                boolean childProduced = child.emit(random, out);
+                produced |= childProduced;
+                if (kind == ALTERNATIVES && childProduced) {
+                    break;
+                }
+                if (kind == SEQUENCE && !childProduced) {
+                    break;
+                }
+            }
+            return produced;
+        }
+    }
+
+    /**
+     * Growable scratch arrays reused across all rolls of one generation call.
+     */
+    private static final class Scratch {
+        ItemStack[] stacks = new ItemStack[8];
+        int size = 0;
+        private int[] indexes = new int[0];
+
+        int[] indexes(int capacity) {
+            if (indexes.length < capacity) {
+                indexes = new int[capacity];
+            }
+            return indexes;
+        }
+
+        void add(ItemStack stack) {
+            if (size == stacks.length) {
+                stacks = Arrays.copyOf(stacks, size * 2);
+            }
+            stacks[size++] = stack;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package dev.isotope.editing;
 
 import dev.isotope.Isotope;
+import dev.isotope.analysis.ExpectedValueEngine;
 import dev.isotope.data.loot.LootTableStructure;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Central manager for loot table edits.
@@ -31,11 +39,32 @@ public final class LootEditManager {
     // Cache of edited structures (rebuilt when operations change)
     private final Map<ResourceLocation, LootTableStructure> editedCache = new ConcurrentHashMap<>();
 
+    // Compiled evaluation plans for edited structures (invalidated with editedCache)
+    private final Map<ResourceLocation, CompiledLootTable> compiledCache = new ConcurrentHashMap<>();
+
+    // Edit version per table, bumped on every change to its edits
+    private final Map<ResourceLocation, Long> editVersions = new ConcurrentHashMap<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+
+    // Version of tables without their own entry (bumped by bulk changes)
+    private volatile long baseVersion = 0;
+
+    // Bounded worker pool for pre-parsing
+    private static final int PRE_PARSE_MAX_THREADS = 4;
+    private static final int PRE_PARSE_BATCH_SIZE = 64;
+
+    // Pre-parse state; the generation changes whenever the caches are cleared
+    private volatile CompletableFuture<PreParseResult> preParseFuture =
+        CompletableFuture.completedFuture(new PreParseResult(0, 0, 0, 0));
+    private final AtomicInteger cacheGeneration = new AtomicInteger();
+    private final AtomicInteger preParseCompleted = new AtomicInteger();
+    private volatile int preParseTotal = 0;
+
     // Test mode flag
     private volatile boolean testModeActive = false;
 
-    // Listeners for edit changes
-    private final List<EditListener> listeners = new ArrayList<>();
+    // Listeners for edit changes (the search index registers from whichever thread first uses it)
+    private final List<EditListener> listeners = new CopyOnWriteArrayList<>();
 
     private LootEditManager() {}
 
@@ -98,10 +127,22 @@ public final class LootEditManager {
     }
 
     /**
-     * Pre-cache an original structure.
+     * Get all cached original structures.
+     */
+    public Collection<LootTableStructure> getCachedOriginalStructures() {
+        return new ArrayList<>(originalCache.values());
+    }
+
+    /**
+     * Pre-cache an original structure (lazily parsed or imported).
+     * Anything derived from the previous original is invalidated, and the
+     * table is re-indexed for search.
      */
     public void cacheOriginalStructure(LootTableStructure structure) {
-        originalCache.put(structure.id(), structure);
+        ResourceLocation tableId = structure.id();
+        originalCache.put(tableId, structure);
+        invalidateDerived(tableId);
+        dev.isotope.search.SearchIndex.getInstance().indexTableAsync(structure);
     }
 
     // ===== Edited Structure Access =====
@@ -112,6 +153,7 @@ public final class LootEditManager {
      */
     public Optional<LootTableStructure> getEditedStructure(ResourceLocation tableId) {
         // Check edited cache first
+        long version = getEditVersion(tableId);
         LootTableStructure edited = editedCache.get(tableId);
         if (edited != null) {
             return Optional.of(edited);
@@ -131,10 +173,31 @@ public final class LootEditManager {
 
         // Apply all operations and cache
         LootTableStructure result = LootEditApplicator.applyAll(original, edit);
-        editedCache.put(tableId, result);
+        cacheIfCurrent(editedCache, tableId, version, result);
         return Optional.of(result);
     }
 
+    /**
+     * Get the compiled evaluation plan for a table's edited structure.
+     * Compiled once and reused until the table's edits change.
+     */
+    public Optional<CompiledLootTable> getCompiledPlan(ResourceLocation tableId) {
+        long version = getEditVersion(tableId);
+        CompiledLootTable plan = compiledCache.get(tableId);
+        if (plan != null) {
+            return Optional.of(plan);
+        }
+
+        Optional<LootTableStructure> structure = getEditedStructure(tableId);
+        if (structure.isEmpty()) {
+            return Optional.empty();
+        }
+
+        plan = CompiledLootTable.compile(structure.get());
+        cacheIfCurrent(compiledCache, tableId, version, plan);
+        return Optional.of(plan);
+    }
+
     /**
      * Check if a table has edits.
      */
@@ -172,7 +235,7 @@ public final class LootEditManager {
         redoStacks.remove(tableId);
 
         // Invalidate edited cache for this table
-        editedCache.remove(tableId);
+        invalidateDerived(tableId);
 
         // Log to history
         HistoryLog.getInstance().log(tableId, operation);
@@ -205,7 +268,7 @@ public final class LootEditManager {
         redoStacks.remove(tableId);
 
         // Invalidate edited cache
-        editedCache.remove(tableId);
+        invalidateDerived(tableId);
 
         // Log to history (batch entry)
         HistoryLog.getInstance().logBatch(tableId, operations.size(), operations.get(0).getDescription());
@@ -238,7 +301,7 @@ public final class LootEditManager {
         }
 
         // Invalidate edited cache
-        editedCache.remove(tableId);
+        invalidateDerived(tableId);
 
         // Log undo to history
         HistoryLog.getInstance().logUndo(tableId);
@@ -269,7 +332,7 @@ public final class LootEditManager {
         edits.put(tableId, newEdit);
 
         // Invalidate edited cache
-        editedCache.remove(tableId);
+        invalidateDerived(tableId);
 
         Isotope.LOGGER.debug("Redid edit on {}: {}", tableId, op.getDescription());
         notifyListeners();
@@ -328,7 +391,7 @@ public final class LootEditManager {
     public void clearEdits(ResourceLocation tableId) {
         edits.remove(tableId);
         redoStacks.remove(tableId);
-        editedCache.remove(tableId);
+        invalidateDerived(tableId);
         Isotope.LOGGER.debug("Cleared all edits for {}", tableId);
         notifyListeners();
     }
@@ -339,7 +402,7 @@ public final class LootEditManager {
     public void clearAllEdits() {
         edits.clear();
         redoStacks.clear();
-        editedCache.clear();
+        invalidateAllDerived();
         Isotope.LOGGER.info("Cleared all loot table edits");
         notifyListeners();
     }
@@ -360,43 +423,224 @@ public final class LootEditManager {
             .count();
     }
 
+    // ===== Edit Versions =====
+
+    /**
+     * Get the edit version of a table. It changes whenever the table's edits
+     * change (apply, undo, redo, clear) or all edits are replaced, so derived
+     * results can be cached against it.
+     */
+    public long getEditVersion(ResourceLocation tableId) {
+        return editVersions.getOrDefault(tableId, baseVersion);
+    }
+
+    /**
+     * Version of the edit state as a whole. It changes whenever any table's
+     * edit version does, so it is a cheap check for "anything changed".
+     */
+    public long getGlobalEditVersion() {
+        return versionCounter.get();
+    }
+
+    private void bumpEditVersion(ResourceLocation tableId) {
+        editVersions.put(tableId, versionCounter.incrementAndGet());
+    }
+
+    private void bumpAllEditVersions() {
+        baseVersion = versionCounter.incrementAndGet();
+        editVersions.clear();
+    }
+
+    /**
+     * Drop everything derived from a table's edits. The version is bumped
+     * before the caches are cleared, so a result computed concurrently from
+     * the old edits fails the check in cacheIfCurrent.
+     */
+    private void invalidateDerived(ResourceLocation tableId) {
+        bumpEditVersion(tableId);
+        editedCache.remove(tableId);
+        compiledCache.remove(tableId);
+        ExpectedValueEngine.getInstance().invalidate(tableId);
+    }
+
+    private void invalidateAllDerived() {
+        bumpAllEditVersions();
+        editedCache.clear();
+        compiledCache.clear();
+        ExpectedValueEngine.getInstance().clear();
+    }
+
+    /**
+     * Cache a result computed from a table's edits at the given version,
+     * unless the edits changed in the meantime. Readers run on search and
+     * evaluation threads while edits happen on the client thread.
+     */
+    private <T> void cacheIfCurrent(Map<ResourceLocation, T> cache, ResourceLocation tableId,
+                                    long version, T value) {
+        cache.compute(tableId, (id, current) -> getEditVersion(id) == version ? value : current);
+    }
+
     // ===== Bulk Parsing =====
 
     /**
      * Pre-parse all loot tables from the server and cache them.
      * Called during registry scanning when server is available.
+     *
+     * Tables are parsed in batches on a bounded worker pool and indexed for
+     * search as they complete, so the server thread is not held up. The
+     * returned future completes once every table has been parsed. Files whose
+     * content is unchanged since an earlier run are decoded from
+     * LootTableParseCache instead of parsed.
      */
-    public void preParseLootTables(net.minecraft.server.MinecraftServer server) {
-        var registry = dev.isotope.registry.LootTableRegistry.getInstance();
+    public CompletableFuture<PreParseResult> preParseLootTables(MinecraftServer server) {
+        awaitPreParse();
+
+        long startTime = System.nanoTime();
+        int generation = cacheGeneration.incrementAndGet();
+        LootTableParseCache parseCache = LootTableParseCache.getInstance();
+        parseCache.beginRun();
         var searchIndex = dev.isotope.search.SearchIndex.getInstance();
         searchIndex.clear();
 
-        int parsed = 0;
-        int failed = 0;
-
-        for (var info : registry.getAll()) {
-            Optional<LootTableStructure> structure = LootTableParser.parse(server, info.id());
-            if (structure.isPresent()) {
-                originalCache.put(info.id(), structure.get());
-                searchIndex.indexTable(structure.get());
-                parsed++;
-            } else {
-                failed++;
-            }
+        List<ResourceLocation> tableIds = new ArrayList<>();
+        for (var info : dev.isotope.registry.LootTableRegistry.getInstance().getAll()) {
+            tableIds.add(info.id());
         }
+        long listNanos = System.nanoTime() - startTime;
+
+        int threads = Math.max(1, Math.min(PRE_PARSE_MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Isotope-PreParse-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        preParseTotal = tableIds.size();
+        preParseCompleted.set(0);
+        AtomicInteger parsed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        LongAdder readNanos = new LongAdder();
+        LongAdder parseNanos = new LongAdder();
+        LongAdder indexNanos = new LongAdder();
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < tableIds.size(); from += PRE_PARSE_BATCH_SIZE) {
+            List<ResourceLocation> batch = tableIds.subList(from, Math.min(from + PRE_PARSE_BATCH_SIZE, tableIds.size()));
+            batches.add(CompletableFuture.runAsync(() -> {
+                for (ResourceLocation tableId : batch) {
+                    if (cacheGeneration.get() != generation) {
+                        return; // Caches were cleared, results are no longer wanted
+                    }
+
+                    long readStart = System.nanoTime();
+                    Optional<byte[]> content = LootTableParser.readResource(server, tableId);
+                    long parseStart = System.nanoTime();
+                    Optional<LootTableStructure> structure = Optional.empty();
+                    if (content.isPresent()) {
+                        // Unchanged files come from the parse cache
+                        String hash = LootTableParseCache.hash(content.get());
+                        structure = parseCache.get(hash, tableId);
+                        if (structure.isEmpty()) {
+                            structure = LootTableParser.parseFromBytes(tableId, content.get());
+                            structure.ifPresent(parsedTable -> parseCache.put(hash, parsedTable));
+                        }
+                    }
+                    long indexStart = System.nanoTime();
+                    if (structure.isPresent()) {
+                        originalCache.putIfAbsent(tableId, structure.get());
+                        searchIndex.indexTable(structure.get());
+                        parsed.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    readNanos.add(parseStart - readStart);
+                    parseNanos.add(indexStart - parseStart);
+                    indexNanos.add(System.nanoTime() - indexStart);
+                    preParseCompleted.incrementAndGet();
+                }
+            }, executor));
+        }
+        long submitNanos = System.nanoTime() - startTime - listNanos;
+
+        CompletableFuture<PreParseResult> future = CompletableFuture
+            .allOf(batches.toArray(CompletableFuture[]::new))
+            .handle((ignored, error) -> {
+                executor.shutdown();
+                if (error != null) {
+                    Isotope.LOGGER.error("Loot table pre-parse failed: {}", error.getMessage());
+                }
+
+                if (error == null && cacheGeneration.get() == generation) {
+                    parseCache.endRun();
+                }
+
+                // Derived results may have been computed from a partial cache
+                ExpectedValueEngine.getInstance().clear();
+                bumpAllEditVersions();
+
+                PreParseResult result = new PreParseResult(parsed.get(), failed.get(), threads,
+                    (System.nanoTime() - startTime) / 1_000_000);
+                Isotope.LOGGER.info("Pre-parsed {} loot tables ({} failed) in {} ms on {} threads, search index: {}",
+                    result.parsed(), result.failed(), result.durationMillis(), threads, searchIndex.getStats());
+                Isotope.LOGGER.info("Pre-parse phases: list {} ms, submit {} ms, read {} ms, parse {} ms, index {} ms (read, parse and index summed over workers); parse cache {} hits, {} misses",
+                    String.format("%.1f", listNanos / 1_000_000.0),
+                    String.format("%.1f", submitNanos / 1_000_000.0),
+                    String.format("%.1f", readNanos.sum() / 1_000_000.0),
+                    String.format("%.1f", parseNanos.sum() / 1_000_000.0),
+                    String.format("%.1f", indexNanos.sum() / 1_000_000.0),
+                    parseCache.getHits(), parseCache.getMisses());
+                return result;
+            });
+
+        preParseFuture = future;
+        return future;
+    }
 
-        Isotope.LOGGER.info("Pre-parsed {} loot tables ({} failed), search index: {}",
-            parsed, failed, searchIndex.getStats());
+    /**
+     * Future for the current (or last) pre-parse; completes when all tables are cached.
+     */
+    public CompletableFuture<PreParseResult> getPreParseFuture() {
+        return preParseFuture;
+    }
+
+    public boolean isPreParseComplete() {
+        return preParseFuture.isDone();
+    }
+
+    /**
+     * Pre-parse progress as {completed, total}.
+     */
+    public int[] getPreParseProgress() {
+        return new int[] { preParseCompleted.get(), preParseTotal };
+    }
+
+    /**
+     * Block until a running pre-parse has finished, e.g. before the server's
+     * resources are closed.
+     */
+    public void awaitPreParse() {
+        try {
+            preParseFuture.join();
+        } catch (Exception e) {
+            Isotope.LOGGER.warn("Loot table pre-parse did not complete: {}", e.getMessage());
+        }
     }
 
+    /**
+     * Result of a pre-parse run.
+     */
+    public record PreParseResult(int parsed, int failed, int threads, long durationMillis) {}
+
     // ===== Cache Management =====
 
     /**
      * Clear all caches (usually on world unload).
      */
     public void clearCaches() {
+        cacheGeneration.incrementAndGet();
         originalCache.clear();
-        editedCache.clear();
+        invalidateAllDerived();
         Isotope.LOGGER.debug("Cleared loot table caches");
     }
 
@@ -404,10 +648,11 @@ public final class LootEditManager {
      * Clear everything (caches and edits).
      */
     public void reset() {
+        cacheGeneration.incrementAndGet();
         edits.clear();
         redoStacks.clear();
         originalCache.clear();
-        editedCache.clear();
+        invalidateAllDerived();
         testModeActive = false;
         Isotope.LOGGER.info("Reset LootEditManager");
         notifyListeners();
@@ -428,7 +673,7 @@ public final class LootEditManager {
     public void loadEdits(Map<ResourceLocation, LootTableEdit> savedEdits) {
         edits.clear();
         edits.putAll(savedEdits);
-        editedCache.clear(); // Force rebuild
+        invalidateAllDerived(); // Force rebuild
         Isotope.LOGGER.info("Loaded {} loot table edits", savedEdits.size());
         notifyListeners();
     }
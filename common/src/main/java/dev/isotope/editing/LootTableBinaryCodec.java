@@ -0,0 +1,208 @@
+package dev.isotope.editing;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.isotope.data.loot.*;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compact binary encoding of LootTableStructure.
+ *
+ * The table ID is not stored, so identical files under different IDs share
+ * one encoding. Function and condition parameters are stored as minified JSON,
+ * which decodes to the same JsonObject the parser produced.
+ */
+public final class LootTableBinaryCodec {
+
+    private static final int NUMBER_CONSTANT = 0;
+    private static final int NUMBER_UNIFORM = 1;
+    private static final int NUMBER_BINOMIAL = 2;
+
+    private LootTableBinaryCodec() {}
+
+    public static byte[] encode(LootTableStructure table) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeTable(out, table);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static LootTableStructure decode(ResourceLocation tableId, byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return readTable(in, tableId);
+        }
+    }
+
+    // ===== Writing =====
+
+    private static void writeTable(DataOutput out, LootTableStructure table) throws IOException {
+        out.writeUTF(table.type());
+        out.writeInt(table.pools().size());
+        for (LootPool pool : table.pools()) {
+            writePool(out, pool);
+        }
+        writeFunctions(out, table.functions());
+        writeOptionalId(out, table.randomSequence());
+    }
+
+    private static void writePool(DataOutput out, LootPool pool) throws IOException {
+        out.writeUTF(pool.name());
+        writeNumber(out, pool.rolls());
+        writeNumber(out, pool.bonusRolls());
+        writeEntries(out, pool.entries());
+        writeConditions(out, pool.conditions());
+        writeFunctions(out, pool.functions());
+    }
+
+    private static void writeEntries(DataOutput out, List<LootEntry> entries) throws IOException {
+        out.writeInt(entries.size());
+        for (LootEntry entry : entries) {
+            out.writeUTF(entry.type());
+            writeOptionalId(out, entry.name());
+            out.writeInt(entry.weight());
+            out.writeInt(entry.quality());
+            writeConditions(out, entry.conditions());
+            writeFunctions(out, entry.functions());
+            writeEntries(out, entry.children());
+        }
+    }
+
+    private static void writeFunctions(DataOutput out, List<LootFunction> functions) throws IOException {
+        out.writeInt(functions.size());
+        for (LootFunction function : functions) {
+            out.writeUTF(function.function());
+            writeJson(out, function.parameters());
+            writeConditions(out, function.conditions());
+        }
+    }
+
+    private static void writeConditions(DataOutput out, List<LootCondition> conditions) throws IOException {
+        out.writeInt(conditions.size());
+        for (LootCondition condition : conditions) {
+            out.writeUTF(condition.condition());
+            writeJson(out, condition.parameters());
+        }
+    }
+
+    private static void writeNumber(DataOutput out, NumberProvider number) throws IOException {
+        switch (number) {
+            case NumberProvider.Constant c -> {
+                out.writeByte(NUMBER_CONSTANT);
+                out.writeFloat(c.value());
+            }
+            case NumberProvider.Uniform u -> {
+                out.writeByte(NUMBER_UNIFORM);
+                out.writeFloat(u.min());
+                out.writeFloat(u.max());
+            }
+            case NumberProvider.Binomial b -> {
+                out.writeByte(NUMBER_BINOMIAL);
+                out.writeInt(b.n());
+                out.writeFloat(b.p());
+            }
+        }
+    }
+
+    private static void writeOptionalId(DataOutput out, Optional<ResourceLocation> id) throws IOException {
+        out.writeBoolean(id.isPresent());
+        if (id.isPresent()) {
+            out.writeUTF(id.get().toString());
+        }
+    }
+
+    private static void writeJson(DataOutput out, JsonObject json) throws IOException {
+        // Parameter blocks can exceed writeUTF's 64 KB limit
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ===== Reading =====
+
+    private static LootTableStructure readTable(DataInput in, ResourceLocation tableId) throws IOException {
+        String type = in.readUTF();
+        int poolCount = in.readInt();
+        List<LootPool> pools = new ArrayList<>(poolCount);
+        for (int i = 0; i < poolCount; i++) {
+            pools.add(readPool(in));
+        }
+        List<LootFunction> functions = readFunctions(in);
+        Optional<ResourceLocation> randomSequence = readOptionalId(in);
+        return new LootTableStructure(tableId, type, pools, functions, randomSequence);
+    }
+
+    private static LootPool readPool(DataInput in) throws IOException {
+        String name = in.readUTF();
+        NumberProvider rolls = readNumber(in);
+        NumberProvider bonusRolls = readNumber(in);
+        List<LootEntry> entries = readEntries(in);
+        List<LootCondition> conditions = readConditions(in);
+        List<LootFunction> functions = readFunctions(in);
+        return new LootPool(name, rolls, bonusRolls, entries, conditions, functions);
+    }
+
+    private static List<LootEntry> readEntries(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<LootEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String type = in.readUTF();
+            Optional<ResourceLocation> name = readOptionalId(in);
+            int weight = in.readInt();
+            int quality = in.readInt();
+            List<LootCondition> conditions = readConditions(in);
+            List<LootFunction> functions = readFunctions(in);
+            List<LootEntry> children = readEntries(in);
+            entries.add(new LootEntry(type, name, weight, quality, conditions, functions, children));
+        }
+        return entries;
+    }
+
+    private static List<LootFunction> readFunctions(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<LootFunction> functions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String function = in.readUTF();
+            JsonObject parameters = readJson(in);
+            List<LootCondition> conditions = readConditions(in);
+            functions.add(new LootFunction(function, parameters, conditions));
+        }
+        return functions;
+    }
+
+    private static List<LootCondition> readConditions(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<LootCondition> conditions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String condition = in.readUTF();
+            conditions.add(new LootCondition(condition, readJson(in)));
+        }
+        return conditions;
+    }
+
+    private static NumberProvider readNumber(DataInput in) throws IOException {
+        int kind = in.readByte();
+        return switch (kind) {
+            case NUMBER_CONSTANT -> NumberProvider.constant(in.readFloat());
+            case NUMBER_UNIFORM -> NumberProvider.uniform(in.readFloat(), in.readFloat());
+            case NUMBER_BINOMIAL -> NumberProvider.binomial(in.readInt(), in.readFloat());
+            default -> throw new IOException("Unknown number provider kind " + kind);
+        };
+    }
+
+    private static Optional<ResourceLocation> readOptionalId(DataInput in) throws IOException {
+        return in.readBoolean() ? Optional.of(ResourceLocation.parse(in.readUTF())) : Optional.empty();
+    }
+
+    private static JsonObject readJson(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+}
@@ -0,0 +1,218 @@
+package dev.isotope.editing;
+
+import dev.isotope.Isotope;
+import dev.isotope.data.loot.LootTableStructure;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed cache of parsed loot tables across launches.
+ *
+ * Entries are keyed by the SHA-256 of a loot table file's bytes and hold the
+ * parsed structure in LootTableBinaryCodec form. Pre-parsing still reads every
+ * file, but only files whose content is not in the cache are parsed.
+ * Entries not used by a pre-parse run are dropped when the run ends.
+ *
+ * Persists to .minecraft/isotope/cache/loot-tables.bin
+ */
+public final class LootTableParseCache {
+
+    private static final LootTableParseCache INSTANCE = new LootTableParseCache();
+    private static final int MAGIC = 0x49534C54; // "ISLT"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    // Content hash -> encoded structure
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+    // Hashes seen during the current run
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private volatile boolean dirty = false;
+    private boolean loaded = false;
+
+    private LootTableParseCache() {}
+
+    public static LootTableParseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Hash the bytes of a loot table file.
+     */
+    public static String hash(byte[] content) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(content));
+    }
+
+    /**
+     * Start a pre-parse run: load the cache from disk if needed and reset counters.
+     */
+    public synchronized void beginRun() {
+        if (!loaded) {
+            loadFromDisk();
+            loaded = true;
+        }
+        used.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Get the cached structure for a file's content hash.
+     */
+    public Optional<LootTableStructure> get(String hash, ResourceLocation tableId) {
+        byte[] data = entries.get(hash);
+        if (data == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try {
+            LootTableStructure structure = LootTableBinaryCodec.decode(tableId, data);
+            used.add(hash);
+            hits.incrementAndGet();
+            return Optional.of(structure);
+        } catch (IOException | RuntimeException e) {
+            Isotope.LOGGER.warn("Dropping unreadable parse cache entry for {}: {}", tableId, e.getMessage());
+            entries.remove(hash);
+            dirty = true;
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cache a freshly parsed structure under its file's content hash.
+     */
+    public void put(String hash, LootTableStructure structure) {
+        try {
+            entries.put(hash, LootTableBinaryCodec.encode(structure));
+            used.add(hash);
+            dirty = true;
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to encode {} for the parse cache: {}", structure.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * End a pre-parse run: drop entries that were not used and persist if anything changed.
+     */
+    public synchronized void endRun() {
+        if (entries.keySet().retainAll(used)) {
+            dirty = true;
+        }
+        if (dirty) {
+            saveToDisk();
+            dirty = false;
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop all cached structures. The next pre-parse parses everything.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        used.clear();
+        dirty = false;
+        loaded = true;
+        try {
+            Files.deleteIfExists(getCachePath());
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to delete loot table parse cache: {}", e.getMessage());
+        }
+    }
+
+    private static Path getCachePath() {
+        return Minecraft.getInstance().gameDirectory.toPath()
+            .resolve("isotope")
+            .resolve("cache")
+            .resolve("loot-tables.bin");
+    }
+
+    private void saveToDisk() {
+        try {
+            Path path = getCachePath();
+            Files.createDirectories(path.getParent());
+
+            // Write next to the target and move, so a crash never leaves a truncated cache
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (var entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Isotope.LOGGER.debug("Saved loot table parse cache with {} entries", entries.size());
+        } catch (IOException e) {
+            Isotope.LOGGER.error("Failed to save loot table parse cache", e);
+        }
+    }
+
+    private void loadFromDisk() {
+        Path path = getCachePath();
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                Isotope.LOGGER.info("Ignoring loot table parse cache with old format");
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String hash = in.readUTF();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                entries.put(hash, data);
+            }
+            Isotope.LOGGER.info("Loaded loot table parse cache with {} entries", entries.size());
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to load loot table parse cache: {}", e.getMessage());
+            entries.clear();
+        }
+    }
+}
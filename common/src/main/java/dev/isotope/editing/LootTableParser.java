@@ -1,6 +1,8 @@
 package dev.isotope.editing;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import dev.isotope.Isotope;
 import dev.isotope.data.loot.*;
 import net.minecraft.resources.ResourceLocation;
@@ -9,7 +11,12 @@ import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -18,11 +25,14 @@ import java.util.*;
  *
  * Uses the server's resource manager to read loot table JSON files,
  * providing a structured representation for the editor UI.
+ *
+ * Files are read with a streaming JsonReader that builds the structure
+ * directly; only function and condition parameters are kept as JSON trees.
+ * parseFromJson is kept for callers that already hold a parsed tree and
+ * produces the same result.
  */
 public final class LootTableParser {
 
-    private static final Gson GSON = new GsonBuilder().create();
-
     private LootTableParser() {}
 
     /**
@@ -51,9 +61,48 @@ public final class LootTableParser {
             try (BufferedReader reader = new BufferedReader(
                     new InputStreamReader(resource.get().open(), StandardCharsets.UTF_8))) {
 
-                JsonObject json = GSON.fromJson(reader, JsonObject.class);
-                return Optional.of(parseFromJson(tableId, json));
+                return Optional.of(parseFromReader(tableId, reader));
+            }
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to parse loot table {}: {}", tableId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read the raw bytes of a loot table file from the server's resources.
+     *
+     * @return The file content, or empty if not found or unreadable
+     */
+    public static Optional<byte[]> readResource(MinecraftServer server, ResourceLocation tableId) {
+        ResourceLocation jsonPath = ResourceLocation.fromNamespaceAndPath(
+            tableId.getNamespace(),
+            "loot_table/" + tableId.getPath() + ".json"
+        );
+
+        try {
+            Optional<Resource> resource = server.getResourceManager().getResource(jsonPath);
+            if (resource.isEmpty()) {
+                Isotope.LOGGER.debug("Loot table not found: {}", tableId);
+                return Optional.empty();
+            }
+
+            try (InputStream in = resource.get().open()) {
+                return Optional.of(in.readAllBytes());
             }
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to read loot table {}: {}", tableId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parse a loot table from the raw bytes of its file.
+     */
+    public static Optional<LootTableStructure> parseFromBytes(ResourceLocation tableId, byte[] bytes) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+            return Optional.of(parseFromReader(tableId, reader));
         } catch (Exception e) {
             Isotope.LOGGER.error("Failed to parse loot table {}: {}", tableId, e.getMessage());
             return Optional.empty();
@@ -69,8 +118,7 @@ public final class LootTableParser {
      */
     public static Optional<LootTableStructure> parseFromString(ResourceLocation tableId, String jsonString) {
         try {
-            JsonObject json = GSON.fromJson(jsonString, JsonObject.class);
-            return Optional.of(parseFromJson(tableId, json));
+            return Optional.of(parseFromReader(tableId, new StringReader(jsonString)));
         } catch (Exception e) {
             Isotope.LOGGER.error("Failed to parse loot table JSON: {}", e.getMessage());
             return Optional.empty();
@@ -259,4 +307,218 @@ public final class LootTableParser {
 
         return NumberProvider.constant(1);
     }
+
+    // ===== Streaming =====
+
+    /**
+     * Parse a loot table from a reader without building an intermediate tree.
+     * Produces the same structure as parseFromJson on the same input.
+     */
+    public static LootTableStructure parseFromReader(ResourceLocation tableId, Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true); // Same as Gson.fromJson
+
+        LootTableStructure structure = readTable(tableId, reader);
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonIOException("JSON document was not fully consumed.");
+        }
+        return structure;
+    }
+
+    private static LootTableStructure readTable(ResourceLocation tableId, JsonReader reader) throws IOException {
+        String type = "minecraft:generic";
+        List<LootPool> pools = new ArrayList<>();
+        List<LootFunction> functions = new ArrayList<>();
+        Optional<ResourceLocation> randomSequence = Optional.empty();
+
+        expectObject(reader);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "type" -> type = readString(reader);
+                case "pools" -> {
+                    pools = new ArrayList<>();
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            pools.add(readPool(reader, pools.size()));
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                case "functions" -> functions = readFunctions(reader);
+                case "random_sequence" -> randomSequence = Optional.of(ResourceLocation.parse(readString(reader)));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new LootTableStructure(tableId, type, pools, functions, randomSequence);
+    }
+
+    private static LootPool readPool(JsonReader reader, int index) throws IOException {
+        String name = null;
+        JsonElement rolls = null;
+        JsonElement bonusRolls = null;
+        List<LootEntry> entries = new ArrayList<>();
+        List<LootCondition> conditions = new ArrayList<>();
+        List<LootFunction> functions = new ArrayList<>();
+
+        expectObject(reader);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = readString(reader);
+                case "rolls" -> rolls = JsonParser.parseReader(reader);
+                case "bonus_rolls" -> bonusRolls = JsonParser.parseReader(reader);
+                case "entries" -> entries = readEntries(reader);
+                case "conditions" -> conditions = readConditions(reader);
+                case "functions" -> functions = readFunctions(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new LootPool(
+            name != null ? name : "Pool #" + (index + 1),
+            parseNumberProvider(rolls),
+            bonusRolls != null ? parseNumberProvider(bonusRolls) : NumberProvider.constant(0),
+            entries,
+            conditions,
+            functions
+        );
+    }
+
+    private static List<LootEntry> readEntries(JsonReader reader) throws IOException {
+        List<LootEntry> entries = new ArrayList<>();
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return entries;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            entries.add(readEntry(reader));
+        }
+        reader.endArray();
+        return entries;
+    }
+
+    private static LootEntry readEntry(JsonReader reader) throws IOException {
+        String type = "minecraft:item";
+        Optional<ResourceLocation> name = Optional.empty();
+        int weight = 1;
+        int quality = 0;
+        List<LootCondition> conditions = new ArrayList<>();
+        List<LootFunction> functions = new ArrayList<>();
+        List<LootEntry> children = new ArrayList<>();
+
+        expectObject(reader);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "type" -> type = readString(reader);
+                case "name" -> name = Optional.of(ResourceLocation.parse(readString(reader)));
+                case "weight" -> weight = JsonParser.parseReader(reader).getAsInt();
+                case "quality" -> quality = JsonParser.parseReader(reader).getAsInt();
+                case "conditions" -> conditions = readConditions(reader);
+                case "functions" -> functions = readFunctions(reader);
+                case "children" -> children = readEntries(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new LootEntry(type, name, weight, quality, conditions, functions, children);
+    }
+
+    private static List<LootFunction> readFunctions(JsonReader reader) throws IOException {
+        List<LootFunction> functions = new ArrayList<>();
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return functions;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            functions.add(readFunction(reader));
+        }
+        reader.endArray();
+        return functions;
+    }
+
+    /**
+     * Read a function; every member except function and conditions goes
+     * straight into the parameters object.
+     */
+    private static LootFunction readFunction(JsonReader reader) throws IOException {
+        String function = "unknown";
+        List<LootCondition> conditions = new ArrayList<>();
+        JsonObject parameters = new JsonObject();
+
+        expectObject(reader);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            switch (key) {
+                case "function" -> function = readString(reader);
+                case "conditions" -> conditions = readConditions(reader);
+                default -> parameters.add(key, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+
+        return new LootFunction(function, parameters, conditions);
+    }
+
+    private static List<LootCondition> readConditions(JsonReader reader) throws IOException {
+        List<LootCondition> conditions = new ArrayList<>();
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return conditions;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            conditions.add(readCondition(reader));
+        }
+        reader.endArray();
+        return conditions;
+    }
+
+    private static LootCondition readCondition(JsonReader reader) throws IOException {
+        String condition = "unknown";
+        JsonObject parameters = new JsonObject();
+
+        expectObject(reader);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (key.equals("condition")) {
+                condition = readString(reader);
+            } else {
+                parameters.add(key, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+
+        return new LootCondition(condition, parameters);
+    }
+
+    /**
+     * Read a value the way JsonElement.getAsString would (numbers and
+     * booleans are accepted, objects and null are rejected).
+     */
+    private static String readString(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case STRING, NUMBER -> reader.nextString();
+            case BOOLEAN -> Boolean.toString(reader.nextBoolean());
+            default -> JsonParser.parseReader(reader).getAsString();
+        };
+    }
+
+    private static void expectObject(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IllegalStateException("Not a JSON Object: " + JsonParser.parseReader(reader));
+        }
+    }
 }
@@ -201,12 +201,16 @@ public final class ExportManager {
             entry.put("hasLoot", data.hasLoot());
             entry.put("lootTableCount", data.lootTableCount());
 
+            var stats = data.statistics();
+            entry.put("samples", stats.placements());
+
             // Loot tables with invocation counts
             List<Map<String, Object>> lootTables = new ArrayList<>();
             for (ResourceLocation tableId : data.lootTables()) {
                 Map<String, Object> tableEntry = new LinkedHashMap<>();
                 tableEntry.put("tableId", tableId.toString());
                 tableEntry.put("invocationCount", data.invocationCounts().getOrDefault(tableId, 0));
+                tableEntry.put("invocationsPerPlacement", stats.invocationsPerPlacement(tableId));
                 lootTables.add(tableEntry);
             }
             entry.put("lootTables", lootTables);
@@ -218,6 +222,18 @@ public final class ExportManager {
                 .toList();
             entry.put("observedItems", items);
 
+            // Per-item stack statistics
+            Map<String, Object> itemStats = new TreeMap<>();
+            stats.items().forEach((itemId, item) -> {
+                Map<String, Object> itemEntry = new LinkedHashMap<>();
+                itemEntry.put("stacks", item.stacks());
+                itemEntry.put("stacksPerPlacement", stats.itemFrequency(itemId));
+                itemEntry.put("meanStackCount", item.meanStackCount());
+                itemEntry.put("stackCountVariance", item.stackCountVariance());
+                itemStats.put(itemId.toString(), itemEntry);
+            });
+            entry.put("itemStatistics", itemStats);
+
             // Placement info
             if (data.placement() != null) {
                 Map<String, Object> placement = new LinkedHashMap<>();
@@ -1,20 +1,21 @@
 package dev.isotope.mixin;
 
-import dev.isotope.data.loot.LootTableStructure;
+import dev.isotope.editing.CompiledLootTable;
 import dev.isotope.editing.LootEditManager;
-import dev.isotope.editing.LootGenerator;
 import dev.isotope.observation.LootObserver;
 import dev.isotope.observation.LootTableTracker;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.loot.LootContext;
 import net.minecraft.world.level.storage.loot.LootParams;
 import net.minecraft.world.level.storage.loot.LootTable;
+import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.Collections;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -29,7 +30,7 @@ import java.util.function.Consumer;
 public class LootTableMixin {
 
     /**
-     * Intercept loot generation for observation and test mode.
+     * Intercept loot generation for test mode.
      *
      * When ISOTOPE test mode is active and we have edits for the current table,
      * we generate loot from our edited structure instead of the vanilla table.
@@ -46,22 +47,45 @@ public class LootTableMixin {
         // Check if we should intercept for test mode
         if (tableId != null && LootEditManager.getInstance().isTestModeActive()) {
             if (LootEditManager.getInstance().hasEdits(tableId)) {
-                Optional<LootTableStructure> editedStructure =
-                    LootEditManager.getInstance().getEditedStructure(tableId);
+                Optional<CompiledLootTable> plan =
+                    LootEditManager.getInstance().getCompiledPlan(tableId);
 
-                if (editedStructure.isPresent()) {
-                    // Generate loot from our edited structure
-                    LootGenerator.generateFromStructure(editedStructure.get(), params, seed, consumer);
+                if (plan.isPresent()) {
+                    // Generate loot from the compiled plan of our edited structure
+                    plan.get().generate(seed, consumer);
                     ci.cancel(); // Skip vanilla generation
-                    return;
                 }
             }
         }
+    }
+
+    /**
+     * Observe loot generation by wrapping the output consumer.
+     *
+     * Every vanilla path (container fill, entity drops, the LootParams overloads)
+     * funnels into getRandomItems(LootContext, Consumer), so this is where the
+     * origin and the generated stacks are captured. When not recording the
+     * original consumer is returned untouched.
+     */
+    @ModifyVariable(
+        method = "getRandomItems(Lnet/minecraft/world/level/storage/loot/LootContext;Ljava/util/function/Consumer;)V",
+        at = @At("HEAD"),
+        argsOnly = true
+    )
+    private Consumer<ItemStack> isotope$observeRandomItems(Consumer<ItemStack> output, LootContext context) {
+        if (!LootObserver.getInstance().isRecording()) {
+            return output;
+        }
 
-        // Observation recording
-        if (LootObserver.getInstance().isRecording() && tableId != null) {
-            // Record invocation without item details for now
-            LootObserver.getInstance().onLootTableInvoked(tableId, params, Collections.emptyList());
+        ResourceLocation tableId = LootTableTracker.getCurrentTableId();
+        if (tableId == null) {
+            return output;
         }
+
+        return LootObserver.getInstance().onLootTableInvoked(
+            tableId,
+            context.getOptionalParameter(LootContextParams.ORIGIN),
+            output
+        );
     }
 }
@@ -3,7 +3,6 @@ package dev.isotope.mixin;
 import dev.isotope.observation.StructureObserver;
 import dev.isotope.observation.StructurePlacement;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.ChunkPos;
@@ -57,14 +56,11 @@ public abstract class StructureStartMixin {
             return;
         }
 
+        StructureObserver.getInstance().onPlaceInChunk();
+
         // Get the structure's registry key
-        ResourceLocation structureId = level.registryAccess()
-            .lookupOrThrow(Registries.STRUCTURE)
-            .listElements()
-            .filter(holder -> holder.value() == this.structure)
-            .findFirst()
-            .map(holder -> holder.key().location())
-            .orElse(null);
+        ResourceLocation structureId = StructureObserver.getInstance()
+            .getStructureId(level.registryAccess(), this.structure);
 
         if (structureId == null) {
             return;
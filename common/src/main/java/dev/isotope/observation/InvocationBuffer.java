@@ -0,0 +1,232 @@
+package dev.isotope.observation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Allocation-light, lock-free store for recorded loot invocations.
+ *
+ * Invocations are kept as a struct of arrays split into fixed-size segments:
+ * interned table index, packed block position, timestamp and origin flag.
+ * Generated items are appended to a separate (owner slot, item raw id, count) log,
+ * since items arrive after the invocation slot has been claimed.
+ *
+ * Writers only claim a slot with an atomic increment and fill primitive arrays.
+ * LootInvocation records are materialized on demand by {@link #materialize()}.
+ */
+final class InvocationBuffer {
+
+    private static final int SEGMENT_BITS = 14;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // 4096 segments of 16384 entries - ~67M invocations / items
+    private static final int MAX_SEGMENTS = 1 << 12;
+    private static final int CAPACITY = MAX_SEGMENTS * SEGMENT_SIZE;
+
+    private static final byte FLAG_ORIGIN = 1;
+
+    // Table ID interning
+    private final Map<ResourceLocation, Integer> tableIndex = new ConcurrentHashMap<>();
+    private final List<ResourceLocation> tableNames = new ArrayList<>();
+
+    private final AtomicReferenceArray<InvocationSegment> invocationSegments =
+        new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicReferenceArray<ItemSegment> itemSegments =
+        new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+    private final AtomicInteger invocationCount = new AtomicInteger(0);
+    private final AtomicInteger itemCount = new AtomicInteger(0);
+
+    InvocationBuffer() {
+        // Preallocate the first segments so small sessions never allocate while recording
+        invocationSegments.set(0, new InvocationSegment());
+        itemSegments.set(0, new ItemSegment());
+    }
+
+    /**
+     * Intern a table ID to a stable int index.
+     */
+    int internTable(ResourceLocation tableId) {
+        Integer index = tableIndex.get(tableId);
+        if (index != null) {
+            return index;
+        }
+        return tableIndex.computeIfAbsent(tableId, id -> {
+            synchronized (tableNames) {
+                tableNames.add(id);
+                return tableNames.size() - 1;
+            }
+        });
+    }
+
+    /**
+     * Record an invocation.
+     *
+     * @return The slot of the invocation, or -1 if the buffer is full
+     */
+    int record(int table, long packedPos, long timestamp, boolean hasOrigin) {
+        int slot = invocationCount.getAndIncrement();
+        if (slot >= CAPACITY) {
+            return -1;
+        }
+
+        InvocationSegment segment = invocationSegment(slot >>> SEGMENT_BITS);
+        int offset = slot & SEGMENT_MASK;
+        segment.tables[offset] = table;
+        segment.positions[offset] = packedPos;
+        segment.timestamps[offset] = timestamp;
+        segment.flags[offset] = hasOrigin ? FLAG_ORIGIN : 0;
+        return slot;
+    }
+
+    /**
+     * Record an item stack generated by the invocation in the given slot.
+     */
+    void recordItem(int slot, int itemRawId, int count) {
+        int index = itemCount.getAndIncrement();
+        if (index >= CAPACITY) {
+            return;
+        }
+
+        ItemSegment segment = itemSegment(index >>> SEGMENT_BITS);
+        int offset = index & SEGMENT_MASK;
+        segment.owners[offset] = slot;
+        segment.items[offset] = itemRawId;
+        segment.counts[offset] = count;
+    }
+
+    /**
+     * Number of recorded invocations, at most the capacity; see dropped()
+     * for those that did not fit.
+     */
+    int size() {
+        return Math.min(invocationCount.get(), CAPACITY);
+    }
+
+    /**
+     * Number of invocations that did not fit in the buffer.
+     */
+    int dropped() {
+        return Math.max(0, invocationCount.get() - CAPACITY);
+    }
+
+    /**
+     * Reset counters and release every segment but the first, so a large
+     * session does not pin its segments for the rest of the client's
+     * lifetime; they are allocated again on demand. Interned tables are kept.
+     */
+    void clear() {
+        invocationCount.set(0);
+        itemCount.set(0);
+        for (int i = 1; i < MAX_SEGMENTS; i++) {
+            invocationSegments.set(i, null);
+            itemSegments.set(i, null);
+        }
+    }
+
+    /**
+     * Build LootInvocation records for everything recorded so far.
+     * Items are grouped per invocation with a counting sort over the item log.
+     */
+    List<LootInvocation> materialize() {
+        int invocations = size();
+        int items = Math.min(itemCount.get(), CAPACITY);
+
+        // Item index range per invocation: [itemStart[i], itemStart[i + 1])
+        int[] itemStart = new int[invocations + 1];
+        for (int k = 0; k < items; k++) {
+            int owner = itemSegment(k >>> SEGMENT_BITS).owners[k & SEGMENT_MASK];
+            if (owner < invocations) {
+                itemStart[owner + 1]++;
+            }
+        }
+        for (int i = 0; i < invocations; i++) {
+            itemStart[i + 1] += itemStart[i];
+        }
+
+        int[] orderedItems = new int[itemStart[invocations]];
+        int[] orderedCounts = new int[itemStart[invocations]];
+        int[] cursor = Arrays.copyOf(itemStart, invocations);
+        for (int k = 0; k < items; k++) {
+            ItemSegment segment = itemSegment(k >>> SEGMENT_BITS);
+            int owner = segment.owners[k & SEGMENT_MASK];
+            if (owner < invocations) {
+                int target = cursor[owner]++;
+                orderedItems[target] = segment.items[k & SEGMENT_MASK];
+                orderedCounts[target] = segment.counts[k & SEGMENT_MASK];
+            }
+        }
+
+        List<ResourceLocation> tables;
+        synchronized (tableNames) {
+            tables = new ArrayList<>(tableNames);
+        }
+
+        List<LootInvocation> result = new ArrayList<>(invocations);
+        for (int i = 0; i < invocations; i++) {
+            InvocationSegment segment = invocationSegment(i >>> SEGMENT_BITS);
+            int offset = i & SEGMENT_MASK;
+
+            List<ResourceLocation> itemIds = new ArrayList<>(itemStart[i + 1] - itemStart[i]);
+            List<Integer> stackCounts = new ArrayList<>(itemStart[i + 1] - itemStart[i]);
+            for (int k = itemStart[i]; k < itemStart[i + 1]; k++) {
+                itemIds.add(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(orderedItems[k])));
+                stackCounts.add(orderedCounts[k]);
+            }
+
+            boolean hasOrigin = (segment.flags[offset] & FLAG_ORIGIN) != 0;
+            result.add(new LootInvocation(
+                tables.get(segment.tables[offset]),
+                BlockPos.of(segment.positions[offset]),
+                segment.timestamps[offset],
+                hasOrigin ? "ORIGIN" : "OBSERVED",
+                itemIds,
+                stackCounts
+            ));
+        }
+
+        return result;
+    }
+
+    private InvocationSegment invocationSegment(int index) {
+        InvocationSegment segment = invocationSegments.get(index);
+        if (segment == null) {
+            segment = new InvocationSegment();
+            if (!invocationSegments.compareAndSet(index, null, segment)) {
+                segment = invocationSegments.get(index);
+            }
+        }
+        return segment;
+    }
+
+    private ItemSegment itemSegment(int index) {
+        ItemSegment segment = itemSegments.get(index);
+        if (segment == null) {
+            segment = new ItemSegment();
+            if (!itemSegments.compareAndSet(index, null, segment)) {
+                segment = itemSegments.get(index);
+            }
+        }
+        return segment;
+    }
+
+    private static final class InvocationSegment {
+        final int[] tables = new int[SEGMENT_SIZE];
+        final long[] positions = new long[SEGMENT_SIZE];
+        final long[] timestamps = new long[SEGMENT_SIZE];
+        final byte[] flags = new byte[SEGMENT_SIZE];
+    }
+
+    private static final class ItemSegment {
+        final int[] owners = new int[SEGMENT_SIZE];
+        final int[] items = new int[SEGMENT_SIZE];
+        final int[] counts = new int[SEGMENT_SIZE];
+    }
+}
@@ -14,7 +14,8 @@ public record LootInvocation(
     BlockPos position,
     long timestamp,
     String contextType,
-    List<ResourceLocation> itemsGenerated
+    List<ResourceLocation> itemsGenerated,
+    List<Integer> stackCounts     // Stack size of each entry in itemsGenerated
 ) {
     /**
      * Check if this invocation occurred near a given position.
@@ -2,16 +2,16 @@ package dev.isotope.observation;
 
 import dev.isotope.Isotope;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.storage.loot.LootParams;
-import net.minecraft.world.level.storage.loot.LootTable;
-import net.minecraft.world.level.storage.loot.parameters.LootContextParams;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Central observer that records all loot table invocations.
@@ -27,14 +27,11 @@ public final class LootObserver {
     // Recording state
     private final AtomicBoolean recording = new AtomicBoolean(false);
 
-    // All invocations observed during this session
-    private final Queue<LootInvocation> invocations = new ConcurrentLinkedQueue<>();
+    // All invocations observed during this session, as primitive columns
+    private final InvocationBuffer buffer = new InvocationBuffer();
 
-    // Quick lookup: position -> invocations at that position
-    private final Map<Long, List<LootInvocation>> invocationsByChunk = new ConcurrentHashMap<>();
-
-    // Quick lookup: table -> all invocations of that table
-    private final Map<ResourceLocation, List<LootInvocation>> invocationsByTable = new ConcurrentHashMap<>();
+    // Record views and lookup indexes, built lazily once recording stops
+    private volatile Indexes indexes = null;
 
     private LootObserver() {}
 
@@ -57,76 +54,80 @@ public final class LootObserver {
      */
     public void stopRecording() {
         recording.set(false);
-        Isotope.LOGGER.info("[LootObserver] Stopped recording. Total invocations: {}", invocations.size());
+        Isotope.LOGGER.info("[LootObserver] Stopped recording. Total invocations: {}", buffer.size());
+        if (buffer.dropped() > 0) {
+            Isotope.LOGGER.warn("[LootObserver] Invocation buffer full - {} invocations were not recorded",
+                buffer.dropped());
+        }
     }
 
     /**
      * Clear all recorded data.
      */
     public void clear() {
-        invocations.clear();
-        invocationsByChunk.clear();
-        invocationsByTable.clear();
+        buffer.clear();
+        indexes = null;
     }
 
     /**
      * Called by LootTableMixin when a loot table generates items.
      * This is the core observation hook.
+     *
+     * Records the invocation at the loot origin and returns a consumer that
+     * captures generated item IDs before passing stacks on to the output.
+     * When not recording, the output consumer is returned as-is.
+     *
+     * @param tableId The invoked loot table
+     * @param origin The ORIGIN loot context parameter, or null if absent
+     * @param output The consumer receiving generated items
+     * @return The consumer the loot table should write to
      */
-    public void onLootTableInvoked(
+    public Consumer<ItemStack> onLootTableInvoked(
             ResourceLocation tableId,
-            LootParams params,
-            List<ItemStack> generatedItems) {
+            @Nullable Vec3 origin,
+            Consumer<ItemStack> output) {
 
-        if (!recording.get()) return;
+        if (!recording.get()) return output;
 
-        // Extract position from the level if available
-        // In observation model, position is tracked via StructureObserver correlation
-        BlockPos position = BlockPos.ZERO;
-        String contextType = "OBSERVED";
+        // Containers and entities pass their position as ORIGIN;
+        // invocations without one keep BlockPos.ZERO as before
+        long packedPos = origin != null
+            ? BlockPos.asLong(Mth.floor(origin.x), Mth.floor(origin.y), Mth.floor(origin.z))
+            : BlockPos.ZERO.asLong();
 
-        // Try to get the level and use its spawn position as reference
-        // Actual position correlation happens in ObservationCorrelator
-        try {
-            if (params.getLevel() != null) {
-                contextType = "LEVEL_CONTEXT";
-            }
-        } catch (Exception e) {
-            // Level not available
+        int slot = buffer.record(buffer.internTable(tableId), packedPos, System.currentTimeMillis(), origin != null);
+        if (slot < 0) {
+            return output;
         }
 
-        // Convert items to resource locations
-        List<ResourceLocation> itemIds = new ArrayList<>();
-        for (ItemStack stack : generatedItems) {
+        return stack -> {
             if (!stack.isEmpty()) {
-                stack.getItemHolder().unwrapKey().ifPresent(key ->
-                    itemIds.add(key.location())
-                );
+                buffer.recordItem(slot, BuiltInRegistries.ITEM.getId(stack.getItem()), stack.getCount());
             }
-        }
-
-        // Create and store the invocation record
-        LootInvocation invocation = new LootInvocation(
-            tableId,
-            position,
-            System.currentTimeMillis(),
-            contextType,
-            itemIds
-        );
-
-        invocations.add(invocation);
-
-        // Index by chunk
-        long chunkKey = invocation.chunkKey();
-        invocationsByChunk.computeIfAbsent(chunkKey, k -> Collections.synchronizedList(new ArrayList<>()))
-            .add(invocation);
+            output.accept(stack);
+        };
+    }
 
-        // Index by table
-        invocationsByTable.computeIfAbsent(tableId, k -> Collections.synchronizedList(new ArrayList<>()))
-            .add(invocation);
+    /**
+     * Get the record views and lookup indexes.
+     * Built once after recording stops; while recording, a fresh snapshot is returned.
+     */
+    private Indexes indexes() {
+        Indexes current = indexes;
+        if (current != null) {
+            return current;
+        }
 
-        Isotope.LOGGER.debug("[LootObserver] Recorded: {} at {} ({} items)",
-            tableId, position, itemIds.size());
+        synchronized (this) {
+            if (indexes != null) {
+                return indexes;
+            }
+            Indexes built = Indexes.build(buffer.materialize());
+            if (!recording.get()) {
+                indexes = built;
+            }
+            return built;
+        }
     }
 
     /**
@@ -135,6 +136,7 @@ public final class LootObserver {
      */
     public List<LootInvocation> getInvocationsNear(BlockPos center, int radius) {
         List<LootInvocation> result = new ArrayList<>();
+        Map<Long, List<LootInvocation>> byChunk = indexes().byChunk();
 
         // Check nearby chunks
         int chunkRadius = (radius >> 4) + 1;
@@ -144,7 +146,7 @@ public final class LootObserver {
         for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
             for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
                 long chunkKey = ((long) (centerChunkX + dx) << 32) | ((long) (centerChunkZ + dz) & 0xFFFFFFFFL);
-                List<LootInvocation> chunkInvocations = invocationsByChunk.get(chunkKey);
+                List<LootInvocation> chunkInvocations = byChunk.get(chunkKey);
 
                 if (chunkInvocations != null) {
                     for (LootInvocation inv : chunkInvocations) {
@@ -163,31 +165,52 @@ public final class LootObserver {
      * Get all invocations of a specific loot table.
      */
     public List<LootInvocation> getInvocationsOf(ResourceLocation tableId) {
-        return invocationsByTable.getOrDefault(tableId, List.of());
+        return indexes().byTable().getOrDefault(tableId, List.of());
     }
 
     /**
      * Get all unique loot tables that were invoked.
      */
     public Set<ResourceLocation> getObservedTables() {
-        return Collections.unmodifiableSet(invocationsByTable.keySet());
+        return Collections.unmodifiableSet(indexes().byTable().keySet());
     }
 
     /**
      * Get total invocation count.
      */
     public int getTotalInvocations() {
-        return invocations.size();
+        return buffer.size();
     }
 
     /**
      * Get all invocations.
      */
     public Collection<LootInvocation> getAllInvocations() {
-        return Collections.unmodifiableCollection(invocations);
+        return Collections.unmodifiableCollection(indexes().all());
     }
 
     public boolean isRecording() {
         return recording.get();
     }
+
+    /**
+     * Materialized invocations with chunk and table lookups.
+     */
+    private record Indexes(
+        List<LootInvocation> all,
+        Map<Long, List<LootInvocation>> byChunk,
+        Map<ResourceLocation, List<LootInvocation>> byTable
+    ) {
+        static Indexes build(List<LootInvocation> invocations) {
+            Map<Long, List<LootInvocation>> byChunk = new HashMap<>();
+            Map<ResourceLocation, List<LootInvocation>> byTable = new LinkedHashMap<>();
+
+            for (LootInvocation invocation : invocations) {
+                byChunk.computeIfAbsent(invocation.chunkKey(), k -> new ArrayList<>()).add(invocation);
+                byTable.computeIfAbsent(invocation.tableId(), k -> new ArrayList<>()).add(invocation);
+            }
+
+            return new Indexes(invocations, byChunk, byTable);
+        }
+    }
 }
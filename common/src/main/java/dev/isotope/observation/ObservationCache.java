@@ -0,0 +1,315 @@
+package dev.isotope.observation;
+
+import com.google.gson.*;
+import com.mojang.serialization.JsonOps;
+import dev.architectury.platform.Mod;
+import dev.architectury.platform.Platform;
+import dev.isotope.Isotope;
+import dev.isotope.editing.LootEditManager;
+import dev.isotope.editing.LootTableSerializer;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * Persisted per-structure observation results for incremental re-analysis.
+ *
+ * Each structure is fingerprinted from its registry entry, its jigsaw start
+ * pool (and fallbacks), the version of the mod that owns it, the enabled
+ * packs, and the JSON of every loot table it was observed to invoke. On the
+ * next session only the structures whose fingerprint changed are placed
+ * again; the statistics of the rest are merged from the cache.
+ *
+ * The fingerprint does not cover processor lists, jigsaw pools beyond the
+ * start pool's fallback chain, or the contents of templates, and a template
+ * change that introduces a new loot table goes unnoticed. Incremental mode
+ * is therefore opt-in (ObservationSession.setIncremental).
+ *
+ * Persists to .minecraft/isotope/observation-cache.json
+ */
+public final class ObservationCache {
+
+    private static final ObservationCache INSTANCE = new ObservationCache();
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final int FORMAT_VERSION = 1;
+
+    // Structure -> fingerprint and statistics from the last session
+    private final Map<ResourceLocation, Entry> entries = new LinkedHashMap<>();
+    private int samples = 0;
+    private ObservationSession.SessionResult lastResult = null;
+    private boolean loaded = false;
+
+    private ObservationCache() {}
+
+    public static ObservationCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * A cached structure: fingerprint at observation time and its statistics.
+     */
+    public record Entry(String fingerprint, StructureStatistics statistics) {}
+
+    /**
+     * Get a cached entry if it was observed with the same sample count
+     * and its fingerprint still matches.
+     */
+    public synchronized Optional<StructureStatistics> getIfUnchanged(
+            ResourceLocation structureId, String fingerprint, int sampleCount) {
+        ensureLoaded();
+        if (fingerprint == null || samples != sampleCount) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(structureId);
+        if (entry == null || !entry.fingerprint().equals(fingerprint)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.statistics());
+    }
+
+    /**
+     * Get the loot tables a structure was observed to invoke in the cached session.
+     */
+    public synchronized Set<ResourceLocation> getCachedLootTables(ResourceLocation structureId) {
+        ensureLoaded();
+        Entry entry = entries.get(structureId);
+        return entry != null ? entry.statistics().lootTables() : Set.of();
+    }
+
+    /**
+     * Get the result of the last persisted session.
+     */
+    public synchronized Optional<ObservationSession.SessionResult> getLastResult() {
+        ensureLoaded();
+        return Optional.ofNullable(lastResult);
+    }
+
+    /**
+     * Replace the cache with the structures of a finished session.
+     * Structures without a fingerprint are not cached.
+     */
+    public synchronized void update(
+            Map<ResourceLocation, StructureStatistics> statistics,
+            Map<ResourceLocation, String> fingerprints,
+            int sampleCount,
+            ObservationSession.SessionResult result) {
+        entries.clear();
+        for (var entry : statistics.entrySet()) {
+            String fingerprint = fingerprints.get(entry.getKey());
+            if (fingerprint != null && entry.getValue().placements() > 0) {
+                entries.put(entry.getKey(), new Entry(fingerprint, entry.getValue()));
+            }
+        }
+        samples = sampleCount;
+        lastResult = result;
+        loaded = true;
+        saveToDisk();
+    }
+
+    /**
+     * Drop all cached observations. The next session re-observes everything.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        samples = 0;
+        lastResult = null;
+        loaded = true;
+        try {
+            Files.deleteIfExists(getCachePath());
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to delete observation cache: {}", e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * Fingerprint a structure definition and the loot tables it touches.
+     *
+     * @param lootTables Loot tables the structure is known to invoke
+     * @return Hex digest, or null if the structure could not be fingerprinted
+     */
+    public static String fingerprint(MinecraftServer server, ResourceLocation structureId,
+                                     Set<ResourceLocation> lootTables) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            RegistryOps<JsonElement> ops = server.registryAccess().createSerializationContext(JsonOps.INSTANCE);
+
+            // Registry entry
+            Structure structure = server.registryAccess().lookupOrThrow(Registries.STRUCTURE)
+                .getValue(structureId);
+            if (structure == null) {
+                return null;
+            }
+            JsonElement structureJson = Structure.DIRECT_CODEC.encodeStart(ops, structure).getOrThrow();
+            update(digest, structureJson.toString());
+
+            // Jigsaw start pool and its fallback chain
+            if (structureJson.isJsonObject() && structureJson.getAsJsonObject().has("start_pool")) {
+                String poolId = structureJson.getAsJsonObject().get("start_pool").getAsString();
+                Set<String> visited = new HashSet<>();
+                while (poolId != null && visited.add(poolId)) {
+                    StructureTemplatePool pool = server.registryAccess().lookupOrThrow(Registries.TEMPLATE_POOL)
+                        .getValue(ResourceLocation.parse(poolId));
+                    if (pool == null) {
+                        break;
+                    }
+                    JsonElement poolJson = StructureTemplatePool.DIRECT_CODEC.encodeStart(ops, pool).getOrThrow();
+                    update(digest, poolJson.toString());
+                    poolId = poolJson.isJsonObject() && poolJson.getAsJsonObject().has("fallback")
+                        ? poolJson.getAsJsonObject().get("fallback").getAsString()
+                        : null;
+                }
+            }
+
+            // Templates (NBT) are not reachable from the registry; the owning mod's version
+            // and the enabled packs (datapacks can replace any namespace) stand in for them
+            update(digest, ownerVersion(structureId.getNamespace()));
+            update(digest, String.join(",", server.getPackRepository().getSelectedIds()));
+
+            // Loot tables, in a stable order
+            for (ResourceLocation tableId : new TreeSet<>(lootTables)) {
+                update(digest, tableId.toString());
+                digestLootTable(server, digest, tableId);
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            Isotope.LOGGER.debug("Failed to fingerprint structure {}: {}", structureId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void digestLootTable(MinecraftServer server, MessageDigest digest, ResourceLocation tableId)
+            throws IOException {
+        // Same path convention as LootTableParser: data/<namespace>/loot_table/<path>.json
+        ResourceLocation jsonPath = ResourceLocation.fromNamespaceAndPath(
+            tableId.getNamespace(),
+            "loot_table/" + tableId.getPath() + ".json"
+        );
+
+        Optional<Resource> resource = server.getResourceManager().getResource(jsonPath);
+        if (resource.isPresent()) {
+            try (InputStream in = resource.get().open()) {
+                digest.update(in.readAllBytes());
+            }
+        }
+
+        // Test mode replaces generation with the edited table
+        LootEditManager editManager = LootEditManager.getInstance();
+        if (editManager.isTestModeActive() && editManager.hasEdits(tableId)) {
+            editManager.getEditedStructure(tableId).ifPresent(edited ->
+                update(digest, LootTableSerializer.toMinifiedJson(edited)));
+        }
+    }
+
+    private static String ownerVersion(String namespace) {
+        if ("minecraft".equals(namespace)) {
+            return SharedConstants.getCurrentVersion().getName();
+        }
+        return Platform.getOptionalMod(namespace).map(Mod::getVersion).orElse("");
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static Path getCachePath() {
+        return Minecraft.getInstance().gameDirectory.toPath()
+            .resolve("isotope")
+            .resolve("observation-cache.json");
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadFromDisk();
+            loaded = true;
+        }
+    }
+
+    private void saveToDisk() {
+        try {
+            Path path = getCachePath();
+            Files.createDirectories(path.getParent());
+
+            JsonObject root = new JsonObject();
+            root.addProperty("version", FORMAT_VERSION);
+            root.addProperty("samples", samples);
+
+            JsonObject structures = new JsonObject();
+            entries.forEach((id, entry) -> {
+                JsonObject json = new JsonObject();
+                json.addProperty("fingerprint", entry.fingerprint());
+                json.add("statistics", entry.statistics().toJson());
+                structures.add(id.toString(), json);
+            });
+            root.add("structures", structures);
+
+            if (lastResult != null) {
+                root.add("lastResult", GSON.toJsonTree(lastResult));
+            }
+
+            // Write next to the target and move, so a crash never leaves a truncated cache
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, GSON.toJson(root));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Isotope.LOGGER.error("Failed to save observation cache", e);
+        }
+    }
+
+    private void loadFromDisk() {
+        Path path = getCachePath();
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            JsonObject root = GSON.fromJson(Files.readString(path), JsonObject.class);
+            if (root.get("version").getAsInt() != FORMAT_VERSION) {
+                Isotope.LOGGER.info("Ignoring observation cache with old format");
+                return;
+            }
+
+            samples = root.get("samples").getAsInt();
+            for (var entry : root.getAsJsonObject("structures").entrySet()) {
+                ResourceLocation id = ResourceLocation.parse(entry.getKey());
+                JsonObject json = entry.getValue().getAsJsonObject();
+                entries.put(id, new Entry(
+                    json.get("fingerprint").getAsString(),
+                    StructureStatistics.fromJson(id, json.getAsJsonObject("statistics"))
+                ));
+            }
+
+            if (root.has("lastResult")) {
+                lastResult = GSON.fromJson(root.get("lastResult"), ObservationSession.SessionResult.class);
+            }
+
+            Isotope.LOGGER.info("Loaded observation cache with {} structures", entries.size());
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to load observation cache", e);
+            entries.clear();
+            samples = 0;
+            lastResult = null;
+        }
+    }
+}
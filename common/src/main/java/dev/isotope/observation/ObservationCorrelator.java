@@ -1,7 +1,9 @@
 package dev.isotope.observation;
 
 import dev.isotope.Isotope;
+import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
 import java.util.*;
 
@@ -17,6 +19,9 @@ public final class ObservationCorrelator {
 
     private static final ObservationCorrelator INSTANCE = new ObservationCorrelator();
 
+    // Blocks around a structure's bounding box that still count as "inside" it
+    private static final int CORRELATION_BUFFER = 16;
+
     // The final result: structure -> set of observed loot tables
     private final Map<ResourceLocation, Set<ResourceLocation>> structureToLootTables = new LinkedHashMap<>();
 
@@ -45,7 +50,9 @@ public final class ObservationCorrelator {
     public CorrelationResult correlate() {
         clear();
 
-        Collection<StructurePlacement> placements = StructureObserver.getInstance().getAllPlacements();
+        long startTime = System.nanoTime();
+
+        List<StructurePlacement> placements = new ArrayList<>(StructureObserver.getInstance().getAllPlacements());
         Collection<LootInvocation> invocations = LootObserver.getInstance().getAllInvocations();
 
         Isotope.LOGGER.info("[Correlator] Correlating {} placements with {} loot invocations",
@@ -53,51 +60,75 @@ public final class ObservationCorrelator {
 
         int correlatedCount = 0;
 
-        // For each structure placement, find loot invocations that occurred within its bounds
-        for (StructurePlacement placement : placements) {
-            Set<ResourceLocation> lootTables = new HashSet<>();
-            List<LootInvocation> structureInvocations = new ArrayList<>();
+        // Bucket placements by the chunks their buffered bounds overlap, so each
+        // invocation is only tested against placements near it
+        PlacementIndex index = new PlacementIndex(placements, CORRELATION_BUFFER);
+
+        List<List<LootInvocation>> invocationsByPlacement = new ArrayList<>(placements.size());
+        for (int i = 0; i < placements.size(); i++) {
+            invocationsByPlacement.add(null);
+        }
 
-            for (LootInvocation invocation : invocations) {
+        for (LootInvocation invocation : invocations) {
+            for (int placementIdx : index.candidates(invocation.position())) {
                 // Check if this invocation occurred within the structure's bounds
                 // Use a small buffer (16 blocks) to account for structure pieces
-                if (placement.isNear(invocation.position(), 16)) {
-                    lootTables.add(invocation.tableId());
-                    structureInvocations.add(invocation);
+                if (placements.get(placementIdx).isNear(invocation.position(), CORRELATION_BUFFER)) {
+                    List<LootInvocation> matched = invocationsByPlacement.get(placementIdx);
+                    if (matched == null) {
+                        matched = new ArrayList<>();
+                        invocationsByPlacement.set(placementIdx, matched);
+                    }
+                    matched.add(invocation);
                     correlatedCount++;
                 }
             }
+        }
 
-            if (!lootTables.isEmpty()) {
-                ResourceLocation structureId = placement.structureId();
+        // For each structure placement, record the loot invocations that occurred within its bounds
+        for (int i = 0; i < placements.size(); i++) {
+            List<LootInvocation> structureInvocations = invocationsByPlacement.get(i);
+            if (structureInvocations == null) {
+                continue;
+            }
 
-                // Store the correlation
-                structureToLootTables.put(structureId, lootTables);
+            StructurePlacement placement = placements.get(i);
+            ResourceLocation structureId = placement.structureId();
 
-                // Update reverse index
-                for (ResourceLocation tableId : lootTables) {
-                    lootTableToStructures
-                        .computeIfAbsent(tableId, k -> new HashSet<>())
-                        .add(structureId);
-                }
+            Set<ResourceLocation> lootTables = new HashSet<>();
+            for (LootInvocation invocation : structureInvocations) {
+                lootTables.add(invocation.tableId());
+            }
+
+            // Store the correlation
+            structureToLootTables.put(structureId, lootTables);
 
-                // Store detailed observation
-                observations.put(structureId, new StructureObservation(
-                    placement,
-                    lootTables,
-                    structureInvocations
-                ));
+            // Update reverse index
+            for (ResourceLocation tableId : lootTables) {
+                lootTableToStructures
+                    .computeIfAbsent(tableId, k -> new HashSet<>())
+                    .add(structureId);
             }
+
+            // Store detailed observation
+            observations.put(structureId, new StructureObservation(
+                placement,
+                lootTables,
+                structureInvocations
+            ));
         }
 
-        Isotope.LOGGER.info("[Correlator] Correlated {} loot invocations to {} structures",
-            correlatedCount, structureToLootTables.size());
+        long durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        Isotope.LOGGER.info("[Correlator] Correlated {} loot invocations to {} structures in {} ms",
+            correlatedCount, structureToLootTables.size(), durationMillis);
 
         return new CorrelationResult(
             placements.size(),
             invocations.size(),
             correlatedCount,
-            structureToLootTables.size()
+            structureToLootTables.size(),
+            durationMillis
         );
     }
 
@@ -182,6 +213,54 @@ public final class ObservationCorrelator {
         int totalPlacements,
         int totalInvocations,
         int correlatedInvocations,
-        int structuresWithLoot
+        int structuresWithLoot,
+        long durationMillis
     ) {}
+
+    /**
+     * Chunk-bucketed index over placement bounding boxes.
+     *
+     * Each placement is registered in every chunk its buffered bounding box
+     * overlaps. Candidate lists are kept in placement order so correlation
+     * results match a plain scan over all placements.
+     */
+    private static final class PlacementIndex {
+
+        private static final int[] NO_CANDIDATES = new int[0];
+
+        private final Map<Long, int[]> buckets = new HashMap<>();
+
+        PlacementIndex(List<StructurePlacement> placements, int buffer) {
+            Map<Long, List<Integer>> building = new HashMap<>();
+
+            for (int i = 0; i < placements.size(); i++) {
+                BoundingBox box = placements.get(i).boundingBox();
+                int minChunkX = (box.minX() - buffer) >> 4;
+                int maxChunkX = (box.maxX() + buffer) >> 4;
+                int minChunkZ = (box.minZ() - buffer) >> 4;
+                int maxChunkZ = (box.maxZ() + buffer) >> 4;
+
+                for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                        building.computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+
+            for (var entry : building.entrySet()) {
+                buckets.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        /**
+         * Indices of placements whose buffered bounds may contain the position.
+         */
+        int[] candidates(BlockPos pos) {
+            return buckets.getOrDefault(chunkKey(pos.getX() >> 4, pos.getZ() >> 4), NO_CANDIDATES);
+        }
+
+        private static long chunkKey(int chunkX, int chunkZ) {
+            return ((long) chunkX << 32) | ((long) chunkZ & 0xFFFFFFFFL);
+        }
+    }
 }
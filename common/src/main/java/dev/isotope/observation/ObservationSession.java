@@ -1,6 +1,7 @@
 package dev.isotope.observation;
 
 import dev.isotope.Isotope;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
@@ -27,6 +28,19 @@ public final class ObservationSession {
     private SessionResult lastResult = null;
     private Consumer<String> progressCallback;
 
+    // Placements per structure; each sample uses its own seed and grid band
+    private volatile int sampleCount = 1;
+
+    // Only re-observe structures whose fingerprint changed since the cached session.
+    // Off by default: the fingerprint misses some changes (see ObservationCache)
+    private volatile boolean incremental = false;
+
+    // Aggregated per-structure statistics from the last session
+    private final Map<ResourceLocation, StructureStatistics> statistics = new LinkedHashMap<>();
+
+    // Structure -> loot tables of the last completed session, immutable, for other threads
+    private volatile Map<ResourceLocation, Set<ResourceLocation>> observedLootTables = Map.of();
+
     private ObservationSession() {}
 
     public static ObservationSession getInstance() {
@@ -43,11 +57,44 @@ public final class ObservationSession {
         FAILED
     }
 
+    /**
+     * Get the number of placements per structure for the next session.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Set the number of placements per structure for the next session.
+     * Each sample uses a different generation seed and grid band.
+     */
+    public void setSampleCount(int samples) {
+        this.sampleCount = Math.max(1, samples);
+    }
+
+    /**
+     * Check if incremental re-analysis is enabled.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Enable or disable incremental re-analysis (off by default).
+     * When disabled, every structure is placed again and the cache is rebuilt.
+     * When enabled, changes the fingerprint does not cover (processor lists,
+     * nested jigsaw pools, template contents) reuse stale statistics.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Run a complete observation session.
      */
     public SessionResult runSession(MinecraftServer server, Consumer<String> onProgress) {
         this.progressCallback = onProgress;
+        int samples = sampleCount;
 
         try {
             state = SessionState.PREPARING;
@@ -57,66 +104,155 @@ public final class ObservationSession {
             LootObserver.getInstance().clear();
             StructureObserver.getInstance().clear();
             ObservationCorrelator.getInstance().clear();
-
-            // Start recording
-            LootObserver.getInstance().startRecording();
-            StructureObserver.getInstance().startRecording();
-
-            state = SessionState.PLACING_STRUCTURES;
-            progress("Starting structure placement phase...");
+            statistics.clear();
 
             // Get the overworld for structure placement
             ServerLevel level = server.overworld();
 
-            // Place all structures
-            Map<ResourceLocation, StructurePlacementEngine.PlacementResult> placementResults =
-                StructurePlacementEngine.getInstance().placeAllStructures(server, level, this::progress);
-
-            // Count successes/failures
-            int successCount = 0;
-            int failCount = 0;
-            List<String> failedStructures = new ArrayList<>();
-
-            for (var entry : placementResults.entrySet()) {
-                if (entry.getValue().success()) {
-                    successCount++;
+            // Reuse cached statistics for structures whose definitions did not change
+            ObservationCache cache = ObservationCache.getInstance();
+            Map<ResourceLocation, StructureStatistics> reused = new LinkedHashMap<>();
+            Map<ResourceLocation, String> fingerprints = new HashMap<>();
+            Set<ResourceLocation> toPlace = new LinkedHashSet<>();
+
+            server.registryAccess().lookupOrThrow(Registries.STRUCTURE).listElementIds().forEach(key -> {
+                ResourceLocation id = key.location();
+                String fingerprint = ObservationCache.fingerprint(server, id, cache.getCachedLootTables(id));
+                Optional<StructureStatistics> cached = incremental
+                    ? cache.getIfUnchanged(id, fingerprint, samples)
+                    : Optional.empty();
+
+                if (cached.isPresent()) {
+                    reused.put(id, cached.get());
+                    fingerprints.put(id, fingerprint);
                 } else {
-                    failCount++;
-                    failedStructures.add(entry.getKey().toString() + ": " + entry.getValue().error());
+                    toPlace.add(id);
                 }
+            });
+
+            if (!reused.isEmpty()) {
+                progress(String.format("Reusing cached observations for %d structures, %d to observe",
+                    reused.size(), toPlace.size()));
             }
 
-            progress(String.format("Placed %d structures (%d failed)", successCount, failCount));
+            // Last error per structure that has not been placed in any sample yet
+            Map<ResourceLocation, String> failures = new LinkedHashMap<>();
+            Set<ResourceLocation> placedStructures = new HashSet<>();
+            int totalInvocations = 0;
+
+            for (int sample = 0; sample < samples && !toPlace.isEmpty(); sample++) {
+                // Start recording
+                LootObserver.getInstance().startRecording();
+                StructureObserver.getInstance().startRecording();
+
+                state = SessionState.PLACING_STRUCTURES;
+                progress(samples > 1
+                    ? String.format("Starting structure placement phase (sample %d/%d)...", sample + 1, samples)
+                    : "Starting structure placement phase...");
+
+                // Place all structures
+                Map<ResourceLocation, StructurePlacementEngine.PlacementResult> placementResults =
+                    StructurePlacementEngine.getInstance().placeStructures(
+                        server, level, this::progress, sample, samples, toPlace);
+
+                // Count successes/failures
+                int successCount = 0;
+                int failCount = 0;
+
+                for (var entry : placementResults.entrySet()) {
+                    if (entry.getValue().success()) {
+                        successCount++;
+                        placedStructures.add(entry.getKey());
+                        failures.remove(entry.getKey());
+                        statistics.computeIfAbsent(entry.getKey(), StructureStatistics::new).recordPlacement();
+                    } else {
+                        failCount++;
+                        if (!placedStructures.contains(entry.getKey())) {
+                            failures.put(entry.getKey(), entry.getValue().error());
+                        }
+                    }
+                }
+
+                progress(String.format("Placed %d structures (%d failed)", successCount, failCount));
+
+                logLootTriggerTimings(placementResults.values());
+
+                // Stop recording
+                LootObserver.getInstance().stopRecording();
+                StructureObserver.getInstance().stopRecording();
+
+                state = SessionState.CORRELATING;
+                if (samples == 1) {
+                    progress("Correlating observations...");
+                }
+
+                // Correlate structures with loot invocations
+                ObservationCorrelator.CorrelationResult correlation =
+                    ObservationCorrelator.getInstance().correlate();
+                totalInvocations += correlation.totalInvocations();
 
-            // Stop recording
-            LootObserver.getInstance().stopRecording();
-            StructureObserver.getInstance().stopRecording();
+                // Fold this sample into the running statistics
+                for (var observation : ObservationCorrelator.getInstance().getAllObservations()) {
+                    statistics.computeIfAbsent(observation.placement().structureId(), StructureStatistics::new)
+                        .addObservation(observation);
+                }
 
-            state = SessionState.CORRELATING;
-            progress("Correlating observations...");
+                progress(String.format(samples > 1
+                        ? "Sample " + (sample + 1) + "/" + samples + ": correlated %d loot invocations to %d structures in %d ms"
+                        : "Correlated %d loot invocations to %d structures in %d ms",
+                    correlation.correlatedInvocations(), correlation.structuresWithLoot(),
+                    correlation.durationMillis()));
 
-            // Correlate structures with loot invocations
-            ObservationCorrelator.CorrelationResult correlation =
-                ObservationCorrelator.getInstance().correlate();
+                // Raw invocations are not kept between samples
+                LootObserver.getInstance().clear();
+                StructureObserver.getInstance().clear();
+                ObservationCorrelator.getInstance().clear();
+            }
 
-            progress(String.format("Correlated %d loot invocations to %d structures",
-                correlation.correlatedInvocations(), correlation.structuresWithLoot()));
+            // Fingerprint observed structures with the loot tables they actually touched
+            for (StructureStatistics stats : statistics.values()) {
+                fingerprints.put(stats.structureId(),
+                    ObservationCache.fingerprint(server, stats.structureId(), stats.lootTables()));
+            }
+            reused.forEach(statistics::putIfAbsent);
+            for (StructureStatistics stats : reused.values()) {
+                for (long count : stats.invocationCounts().values()) {
+                    totalInvocations += (int) count;
+                }
+            }
 
             state = SessionState.COMPLETE;
             progress("Observation session complete!");
 
+            List<String> failedStructures = new ArrayList<>();
+            failures.forEach((id, error) -> failedStructures.add(id + ": " + error));
+
+            Set<ResourceLocation> uniqueTables = new HashSet<>();
+            int structuresWithLoot = 0;
+            for (StructureStatistics stats : statistics.values()) {
+                if (stats.hasLoot()) {
+                    structuresWithLoot++;
+                    uniqueTables.addAll(stats.lootTables());
+                }
+            }
+
             // Build result
             lastResult = new SessionResult(
                 true,
                 null,
-                successCount,
-                failCount,
-                correlation.totalInvocations(),
-                correlation.structuresWithLoot(),
-                LootObserver.getInstance().getObservedTables().size(),
-                failedStructures
+                placedStructures.size() + reused.size(),
+                failures.size(),
+                totalInvocations,
+                structuresWithLoot,
+                uniqueTables.size(),
+                failedStructures,
+                samples,
+                reused.size()
             );
 
+            cache.update(statistics, fingerprints, samples, lastResult);
+            publishObservedLootTables();
+
             return lastResult;
 
         } catch (Exception e) {
@@ -128,7 +264,9 @@ public final class ObservationSession {
                 false,
                 e.getMessage(),
                 0, 0, 0, 0, 0,
-                List.of()
+                List.of(),
+                samples,
+                0
             );
 
             return lastResult;
@@ -143,6 +281,32 @@ public final class ObservationSession {
         }
     }
 
+    /**
+     * Log container loot timing counters for the placement phase.
+     */
+    private void logLootTriggerTimings(Collection<StructurePlacementEngine.PlacementResult> results) {
+        int containers = 0;
+        int scanned = 0;
+        long nanos = 0;
+        for (var result : results) {
+            containers += result.lootStats().containers();
+            scanned += result.lootStats().blockEntitiesScanned();
+            nanos += result.lootStats().nanos();
+        }
+
+        progress(String.format("Triggered %d containers (%d block entities scanned) in %.1f ms",
+            containers, scanned, nanos / 1_000_000.0));
+
+        // Slowest structures first, so outliers are easy to spot in the log
+        results.stream()
+            .filter(r -> r.lootStats().nanos() > 0)
+            .sorted(Comparator.comparingLong(
+                (StructurePlacementEngine.PlacementResult r) -> r.lootStats().nanos()).reversed())
+            .limit(10)
+            .forEach(r -> Isotope.LOGGER.info("[ObservationSession]   {}: {} containers in {} ms",
+                r.structureId(), r.lootStats().containers(), String.format("%.2f", r.lootStats().millis())));
+    }
+
     private void progress(String message) {
         Isotope.LOGGER.info("[ObservationSession] {}", message);
         if (progressCallback != null) {
@@ -162,19 +326,11 @@ public final class ObservationSession {
      * Get the observed data for a structure.
      */
     public Optional<ObservedStructureData> getStructureData(ResourceLocation structureId) {
-        var observation = ObservationCorrelator.getInstance().getObservation(structureId);
-        if (observation.isEmpty()) {
+        StructureStatistics stats = statistics.get(structureId);
+        if (stats == null || !stats.hasLoot()) {
             return Optional.empty();
         }
-
-        var obs = observation.get();
-        return Optional.of(new ObservedStructureData(
-            structureId,
-            obs.lootTables(),
-            obs.getObservedItems(),
-            obs.getInvocationCounts(),
-            obs.placement()
-        ));
+        return Optional.of(ObservedStructureData.from(stats));
     }
 
     /**
@@ -182,18 +338,34 @@ public final class ObservationSession {
      */
     public List<ObservedStructureData> getAllStructureData() {
         List<ObservedStructureData> result = new ArrayList<>();
-        for (var obs : ObservationCorrelator.getInstance().getAllObservations()) {
-            result.add(new ObservedStructureData(
-                obs.placement().structureId(),
-                obs.lootTables(),
-                obs.getObservedItems(),
-                obs.getInvocationCounts(),
-                obs.placement()
-            ));
+        for (StructureStatistics stats : statistics.values()) {
+            if (stats.hasLoot()) {
+                result.add(ObservedStructureData.from(stats));
+            }
         }
         return result;
     }
 
+    /**
+     * Loot tables each structure used in the last completed session. The map
+     * is an immutable snapshot replaced when a session completes, so it can
+     * be read from any thread while a session runs; the same map is returned
+     * until then.
+     */
+    public Map<ResourceLocation, Set<ResourceLocation>> getObservedLootTables() {
+        return observedLootTables;
+    }
+
+    private void publishObservedLootTables() {
+        Map<ResourceLocation, Set<ResourceLocation>> snapshot = new LinkedHashMap<>();
+        for (StructureStatistics stats : statistics.values()) {
+            if (stats.hasLoot()) {
+                snapshot.put(stats.structureId(), Set.copyOf(stats.lootTables()));
+            }
+        }
+        observedLootTables = Collections.unmodifiableMap(snapshot);
+    }
+
     /**
      * Result of an observation session.
      */
@@ -205,7 +377,9 @@ public final class ObservationSession {
         int lootInvocations,
         int structuresWithLoot,
         int uniqueLootTables,
-        List<String> failedStructures
+        List<String> failedStructures,
+        int samples,
+        int structuresReused
     ) {}
 
     /**
@@ -217,8 +391,23 @@ public final class ObservationSession {
         Set<ResourceLocation> lootTables,
         Set<ResourceLocation> observedItems,
         Map<ResourceLocation, Integer> invocationCounts,
-        StructurePlacement placement
+        StructurePlacement placement,
+        StructureStatistics statistics
     ) {
+        static ObservedStructureData from(StructureStatistics stats) {
+            Map<ResourceLocation, Integer> counts = new LinkedHashMap<>();
+            stats.invocationCounts().forEach((tableId, count) -> counts.put(tableId, count.intValue()));
+
+            return new ObservedStructureData(
+                stats.structureId(),
+                stats.lootTables(),
+                stats.observedItems(),
+                counts,
+                stats.firstPlacement(),
+                stats
+            );
+        }
+
         public boolean hasLoot() {
             return !lootTables.isEmpty();
         }
@@ -2,13 +2,18 @@ package dev.isotope.observation;
 
 import dev.isotope.Isotope;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Records structure placements during analysis.
@@ -29,6 +34,13 @@ public final class StructureObserver {
     // Quick lookup by chunk for spatial queries
     private final Map<Long, List<StructurePlacement>> placementsByChunk = new ConcurrentHashMap<>();
 
+    // Structure instance -> registry ID, built once per registry
+    private volatile StructureIds structureIds = null;
+
+    // placeInChunk callbacks handled while recording
+    private final AtomicLong placeInChunkCallbacks = new AtomicLong(0);
+    private volatile long recordingStartNanos = 0;
+
     private StructureObserver() {}
 
     public static StructureObserver getInstance() {
@@ -37,13 +49,53 @@ public final class StructureObserver {
 
     public void startRecording() {
         clear();
+        structureIds = null;
+        placeInChunkCallbacks.set(0);
+        recordingStartNanos = System.nanoTime();
         recording.set(true);
         Isotope.LOGGER.info("[StructureObserver] Started recording structure placements");
     }
 
     public void stopRecording() {
         recording.set(false);
-        Isotope.LOGGER.info("[StructureObserver] Stopped recording. Total placements: {}", placements.size());
+        long callbacks = placeInChunkCallbacks.get();
+        double seconds = (System.nanoTime() - recordingStartNanos) / 1_000_000_000.0;
+        Isotope.LOGGER.info("[StructureObserver] Stopped recording. Total placements: {}, placeInChunk callbacks: {} ({}/s)",
+            placements.size(), callbacks, String.format("%.1f", seconds > 0 ? callbacks / seconds : 0));
+    }
+
+    /**
+     * Resolve the registry ID of a structure instance in constant time.
+     * The identity map is built on first use after recording starts and
+     * rebuilt whenever the structure registry instance changes.
+     */
+    public ResourceLocation getStructureId(RegistryAccess registryAccess, Structure structure) {
+        Registry<Structure> registry = registryAccess.lookupOrThrow(Registries.STRUCTURE);
+
+        StructureIds ids = structureIds;
+        if (ids == null || ids.registry() != registry) {
+            ids = StructureIds.build(registry);
+            structureIds = ids;
+        }
+        return ids.byStructure().get(structure);
+    }
+
+    /**
+     * Drop the structure ID map, e.g. when the server's registries go away.
+     */
+    public void invalidateStructureIds() {
+        structureIds = null;
+    }
+
+    /**
+     * Count a placeInChunk callback handled while recording.
+     */
+    public void onPlaceInChunk() {
+        placeInChunkCallbacks.incrementAndGet();
+    }
+
+    public long getPlaceInChunkCallbacks() {
+        return placeInChunkCallbacks.get();
     }
 
     public void clear() {
@@ -139,4 +191,12 @@ public final class StructureObserver {
     public boolean isRecording() {
         return recording.get();
     }
+
+    private record StructureIds(Registry<Structure> registry, Map<Structure, ResourceLocation> byStructure) {
+        static StructureIds build(Registry<Structure> registry) {
+            Map<Structure, ResourceLocation> byStructure = new IdentityHashMap<>();
+            registry.listElements().forEach(holder -> byStructure.put(holder.value(), holder.key().location()));
+            return new StructureIds(registry, byStructure);
+        }
+    }
 }
@@ -9,13 +9,18 @@ import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.RandomizableContainerBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.levelgen.structure.StructureStart;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -35,12 +40,36 @@ public final class StructurePlacementEngine {
     // Maximum search radius for structure placement
     private static final int SEARCH_RADIUS = 100;
 
+    // Width/depth (in grid cells) of a region generated by one worker task
+    private static final int REGION_SIZE = 4;
+
+    // When enabled, StructureStarts are generated concurrently per region
+    private volatile boolean parallelPlacement = false;
+
     private StructurePlacementEngine() {}
 
     public static StructurePlacementEngine getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Check if parallel placement mode is enabled.
+     */
+    public boolean isParallelPlacement() {
+        return parallelPlacement;
+    }
+
+    /**
+     * Enable or disable parallel placement mode.
+     *
+     * In parallel mode the grid is split into independent regions and
+     * Structure.generate() runs for each region on a worker pool. Only the
+     * placeInChunk / container loot phase stays on the calling thread.
+     */
+    public void setParallelPlacement(boolean parallel) {
+        this.parallelPlacement = parallel;
+    }
+
     /**
      * Place all registered structures for observation.
      *
@@ -53,6 +82,44 @@ public final class StructurePlacementEngine {
             MinecraftServer server,
             ServerLevel level,
             Consumer<String> onProgress) {
+        return placeAllStructures(server, level, onProgress, 0, 1);
+    }
+
+    /**
+     * Place all registered structures for one sample of a multi-sample session.
+     *
+     * Each sample uses its own generation seed and its own band of the grid,
+     * so samples never overlap. Progress is numbered across all samples.
+     *
+     * @param server The Minecraft server
+     * @param level The level to place structures in
+     * @param onProgress Callback for progress updates
+     * @param sample Index of this sample (0-based)
+     * @param sampleCount Total number of samples in the session
+     * @return Map of structure ID -> placement result
+     */
+    public Map<ResourceLocation, PlacementResult> placeAllStructures(
+            MinecraftServer server,
+            ServerLevel level,
+            Consumer<String> onProgress,
+            int sample,
+            int sampleCount) {
+        return placeStructures(server, level, onProgress, sample, sampleCount, null);
+    }
+
+    /**
+     * Place a subset of the registered structures for one sample.
+     *
+     * @param only Structures to place, or null for all registered structures
+     * @return Map of structure ID -> placement result
+     */
+    public Map<ResourceLocation, PlacementResult> placeStructures(
+            MinecraftServer server,
+            ServerLevel level,
+            Consumer<String> onProgress,
+            int sample,
+            int sampleCount,
+            Set<ResourceLocation> only) {
 
         Map<ResourceLocation, PlacementResult> results = new LinkedHashMap<>();
 
@@ -62,29 +129,36 @@ public final class StructurePlacementEngine {
 
         List<ResourceLocation> structureIds = new ArrayList<>();
         lookup.listElementIds().forEach(key -> structureIds.add(key.location()));
+        if (only != null) {
+            structureIds.retainAll(only);
+        }
+        if (structureIds.isEmpty()) {
+            return results;
+        }
 
         onProgress.accept("Found " + structureIds.size() + " structures to place");
 
         // Calculate grid positions for placing structures
         AtomicInteger placedCount = new AtomicInteger(0);
         int gridSize = (int) Math.ceil(Math.sqrt(structureIds.size()));
+        int gridOffsetZ = sample * (gridSize + 1) * STRUCTURE_SPACING;
+        long seed = sampleSeed(level, sample);
+        int totalPlacements = structureIds.size() * sampleCount;
+
+        List<GeneratedStart> pregenerated = parallelPlacement
+            ? generateStartsParallel(server, level, structureIds, gridSize, gridOffsetZ, seed, onProgress)
+            : null;
 
         for (int i = 0; i < structureIds.size(); i++) {
             ResourceLocation structureId = structureIds.get(i);
-
-            // Calculate position on grid
-            int gridX = i % gridSize;
-            int gridZ = i / gridSize;
-            BlockPos targetPos = new BlockPos(
-                gridX * STRUCTURE_SPACING,
-                64, // Y level doesn't matter for /place
-                gridZ * STRUCTURE_SPACING
-            );
+            BlockPos targetPos = gridPosition(i, gridSize, gridOffsetZ);
 
             onProgress.accept(String.format("Placing %s (%d/%d)...",
-                structureId.getPath(), i + 1, structureIds.size()));
+                structureId.getPath(), sample * structureIds.size() + i + 1, totalPlacements));
 
-            PlacementResult result = placeStructure(server, level, structureId, targetPos);
+            PlacementResult result = pregenerated != null
+                ? placeGeneratedStart(level, pregenerated.get(i))
+                : placeGeneratedStart(level, generateStart(server, level, structureId, targetPos, seed));
             results.put(structureId, result);
 
             if (result.success()) {
@@ -104,6 +178,101 @@ public final class StructurePlacementEngine {
         return results;
     }
 
+    /**
+     * Get the target position for a structure on the placement grid.
+     */
+    private static BlockPos gridPosition(int index, int gridSize, int gridOffsetZ) {
+        int gridX = index % gridSize;
+        int gridZ = index / gridSize;
+        return new BlockPos(
+            gridX * STRUCTURE_SPACING,
+            64, // Y level doesn't matter for /place
+            gridOffsetZ + gridZ * STRUCTURE_SPACING
+        );
+    }
+
+    /**
+     * Generation seed for a sample. Sample 0 uses the world seed.
+     */
+    private static long sampleSeed(ServerLevel level, int sample) {
+        return level.getSeed() + sample * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Generate StructureStarts for every structure on a worker pool.
+     *
+     * The grid is split into REGION_SIZE x REGION_SIZE blocks of cells. Cells are
+     * STRUCTURE_SPACING apart, so regions never share chunks and each region
+     * can be generated independently. Results are returned in grid order.
+     */
+    private List<GeneratedStart> generateStartsParallel(
+            MinecraftServer server,
+            ServerLevel level,
+            List<ResourceLocation> structureIds,
+            int gridSize,
+            int gridOffsetZ,
+            long seed,
+            Consumer<String> onProgress) {
+
+        int count = structureIds.size();
+        GeneratedStart[] generated = new GeneratedStart[count];
+
+        // Group grid indices by region
+        int regionsPerRow = Math.max(1, (gridSize + REGION_SIZE - 1) / REGION_SIZE);
+        Map<Integer, List<Integer>> regions = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            int regionX = (i % gridSize) / REGION_SIZE;
+            int regionZ = (i / gridSize) / REGION_SIZE;
+            regions.computeIfAbsent(regionZ * regionsPerRow + regionX, k -> new ArrayList<>()).add(i);
+        }
+
+        int threads = Math.max(1, Math.min(regions.size(), Runtime.getRuntime().availableProcessors() - 1));
+        onProgress.accept(String.format("Generating structure starts in %d regions on %d threads...",
+            regions.size(), threads));
+
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Isotope-Placement-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startTime = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Integer> region : regions.values()) {
+                futures.add(executor.submit(() -> {
+                    for (int i : region) {
+                        generated[i] = generateStart(server, level, structureIds.get(i),
+                            gridPosition(i, gridSize, gridOffsetZ), seed);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    Isotope.LOGGER.warn("Structure generation worker failed", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Any cell left empty belongs to a worker that died - report it as a failure
+        for (int i = 0; i < count; i++) {
+            if (generated[i] == null) {
+                generated[i] = GeneratedStart.failed(structureIds.get(i), "Structure generation worker failed");
+            }
+        }
+
+        Isotope.LOGGER.info("[PlacementEngine] Generated {} structure starts in {} ms",
+            count, (System.nanoTime() - startTime) / 1_000_000);
+
+        return Arrays.asList(generated);
+    }
+
     /**
      * Place a single structure at or near the target position.
      */
@@ -113,6 +282,20 @@ public final class StructurePlacementEngine {
             ResourceLocation structureId,
             BlockPos targetPos) {
 
+        return placeGeneratedStart(level, generateStart(server, level, structureId, targetPos, level.getSeed()));
+    }
+
+    /**
+     * Generate the StructureStart for a structure without touching the world.
+     * Safe to call from worker threads.
+     */
+    private GeneratedStart generateStart(
+            MinecraftServer server,
+            ServerLevel level,
+            ResourceLocation structureId,
+            BlockPos targetPos,
+            long seed) {
+
         try {
             // Get the structure from registry
             ResourceKey<Structure> key = ResourceKey.create(Registries.STRUCTURE, structureId);
@@ -121,14 +304,14 @@ public final class StructurePlacementEngine {
             Holder.Reference<Structure> holder = lookup.get(key).orElse(null);
 
             if (holder == null) {
-                return PlacementResult.failed(structureId, "Structure not found in registry");
+                return GeneratedStart.failed(structureId, "Structure not found in registry");
             }
 
             Structure structure = holder.value();
 
             // Generate the structure using Structure.generate()
             // This creates a StructureStart directly
-            var chunkPos = level.getChunk(targetPos).getPos();
+            ChunkPos chunkPos = new ChunkPos(targetPos);
 
             StructureStart start = structure.generate(
                 holder,
@@ -138,7 +321,7 @@ public final class StructurePlacementEngine {
                 level.getChunkSource().getGenerator().getBiomeSource(),
                 level.getChunkSource().randomState(),
                 level.getStructureManager(),
-                level.getSeed(),
+                seed,
                 chunkPos,
                 0, // references
                 level,
@@ -146,9 +329,32 @@ public final class StructurePlacementEngine {
             );
 
             if (start == null || start == StructureStart.INVALID_START) {
-                return PlacementResult.failed(structureId, "Structure generation returned invalid start");
+                return GeneratedStart.failed(structureId, "Structure generation returned invalid start");
             }
 
+            return new GeneratedStart(structureId, targetPos, start, null);
+
+        } catch (Exception e) {
+            Isotope.LOGGER.warn("Failed to generate structure {}: {}", structureId, e.getMessage());
+            return GeneratedStart.failed(structureId, e.getMessage());
+        }
+    }
+
+    /**
+     * Place a generated StructureStart into the world and trigger its containers.
+     * Must run on the placement thread - this mutates the level.
+     */
+    private PlacementResult placeGeneratedStart(ServerLevel level, GeneratedStart generated) {
+        if (generated.start() == null) {
+            return PlacementResult.failed(generated.structureId(), generated.error());
+        }
+
+        ResourceLocation structureId = generated.structureId();
+
+        try {
+            StructureStart start = generated.start();
+            var chunkPos = level.getChunk(generated.targetPos()).getPos();
+
             // Actually place the structure
             BoundingBox bounds = start.getBoundingBox();
 
@@ -168,9 +374,13 @@ public final class StructurePlacementEngine {
             StructureObserver.getInstance().onStructurePlaced(placement);
 
             // Now trigger loot table generation for any containers
-            triggerContainerLoot(level, bounds);
+            LootTriggerStats lootStats = triggerContainerLoot(level, bounds);
 
-            return PlacementResult.success(structureId, origin, bounds);
+            Isotope.LOGGER.debug("[PlacementEngine] {}: triggered {} containers ({} block entities scanned) in {} ms",
+                structureId, lootStats.containers(), lootStats.blockEntitiesScanned(),
+                String.format("%.2f", lootStats.millis()));
+
+            return PlacementResult.success(structureId, origin, bounds, lootStats);
 
         } catch (Exception e) {
             Isotope.LOGGER.warn("Failed to place structure {}: {}", structureId, e.getMessage());
@@ -181,22 +391,65 @@ public final class StructurePlacementEngine {
     /**
      * Find and trigger loot generation for all containers within a bounding box.
      * This simulates a player opening each chest.
+     *
+     * Only the block entities of chunks overlapping the box are visited, so the
+     * cost scales with the number of block entities rather than the box volume.
      */
-    private void triggerContainerLoot(ServerLevel level, BoundingBox bounds) {
-        // Iterate through all blocks in the bounding box
-        for (int x = bounds.minX(); x <= bounds.maxX(); x++) {
-            for (int y = bounds.minY(); y <= bounds.maxY(); y++) {
-                for (int z = bounds.minZ(); z <= bounds.maxZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-
-                    BlockEntity blockEntity = level.getBlockEntity(pos);
-                    if (blockEntity instanceof RandomizableContainerBlockEntity container) {
-                        // This triggers loot table generation
-                        container.unpackLootTable(null); // null player = no luck bonus
+    private LootTriggerStats triggerContainerLoot(ServerLevel level, BoundingBox bounds) {
+        long startTime = System.nanoTime();
+        int scanned = 0;
+
+        // Collect first - unpacking loot may touch the chunk's block entity map
+        List<RandomizableContainerBlockEntity> containers = new ArrayList<>();
+        for (int chunkX = bounds.minX() >> 4; chunkX <= bounds.maxX() >> 4; chunkX++) {
+            for (int chunkZ = bounds.minZ() >> 4; chunkZ <= bounds.maxZ() >> 4; chunkZ++) {
+                LevelChunk chunk = level.getChunk(chunkX, chunkZ);
+
+                for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                    scanned++;
+                    if (blockEntity instanceof RandomizableContainerBlockEntity container
+                            && bounds.isInside(blockEntity.getBlockPos())) {
+                        containers.add(container);
                     }
                 }
             }
         }
+
+        for (RandomizableContainerBlockEntity container : containers) {
+            // This triggers loot table generation
+            container.unpackLootTable(null); // null player = no luck bonus
+        }
+
+        return new LootTriggerStats(containers.size(), scanned, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Timing counters for container loot triggering of a single structure.
+     */
+    public record LootTriggerStats(
+        int containers,
+        int blockEntitiesScanned,
+        long nanos
+    ) {
+        public static final LootTriggerStats NONE = new LootTriggerStats(0, 0, 0);
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * A StructureStart generated ahead of placement.
+     */
+    private record GeneratedStart(
+        ResourceLocation structureId,
+        BlockPos targetPos,
+        StructureStart start,
+        String error
+    ) {
+        static GeneratedStart failed(ResourceLocation id, String error) {
+            return new GeneratedStart(id, BlockPos.ZERO, null, error);
+        }
     }
 
     /**
@@ -207,14 +460,16 @@ public final class StructurePlacementEngine {
         boolean success,
         BlockPos origin,
         BoundingBox bounds,
-        String error
+        String error,
+        LootTriggerStats lootStats
     ) {
-        public static PlacementResult success(ResourceLocation id, BlockPos origin, BoundingBox bounds) {
-            return new PlacementResult(id, true, origin, bounds, null);
+        public static PlacementResult success(ResourceLocation id, BlockPos origin, BoundingBox bounds,
+                                              LootTriggerStats lootStats) {
+            return new PlacementResult(id, true, origin, bounds, null, lootStats);
         }
 
         public static PlacementResult failed(ResourceLocation id, String error) {
-            return new PlacementResult(id, false, BlockPos.ZERO, null, error);
+            return new PlacementResult(id, false, BlockPos.ZERO, null, error, LootTriggerStats.NONE);
         }
     }
 }
@@ -0,0 +1,255 @@
+package dev.isotope.observation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.*;
+
+/**
+ * Streaming loot statistics for one structure across observation samples.
+ *
+ * Each sample's correlated invocations are folded in and then discarded,
+ * so memory depends on the number of distinct tables and items, not on
+ * the number of samples.
+ */
+public final class StructureStatistics {
+
+    private final ResourceLocation structureId;
+    private StructurePlacement firstPlacement = null;
+    private int placements = 0;
+
+    // Loot table -> total invocations over all samples
+    private final Map<ResourceLocation, Long> invocationCounts = new LinkedHashMap<>();
+
+    // Item -> stack statistics over all samples
+    private final Map<ResourceLocation, ItemStatistics> items = new LinkedHashMap<>();
+
+    public StructureStatistics(ResourceLocation structureId) {
+        this.structureId = structureId;
+    }
+
+    /**
+     * Record a successful placement of this structure in a sample.
+     */
+    public void recordPlacement() {
+        placements++;
+    }
+
+    /**
+     * Fold one sample's correlated observation into the statistics.
+     */
+    public void addObservation(ObservationCorrelator.StructureObservation observation) {
+        if (firstPlacement == null) {
+            firstPlacement = observation.placement();
+        }
+
+        for (LootInvocation invocation : observation.invocations()) {
+            invocationCounts.merge(invocation.tableId(), 1L, Long::sum);
+
+            for (int i = 0; i < invocation.itemsGenerated().size(); i++) {
+                items.computeIfAbsent(invocation.itemsGenerated().get(i), k -> new ItemStatistics())
+                    .stackCount.add(invocation.stackCounts().get(i));
+            }
+        }
+    }
+
+    public ResourceLocation structureId() {
+        return structureId;
+    }
+
+    /**
+     * Placement from the first sample that produced loot, or null.
+     */
+    public StructurePlacement firstPlacement() {
+        return firstPlacement;
+    }
+
+    /**
+     * Number of samples in which the structure was placed.
+     */
+    public int placements() {
+        return placements;
+    }
+
+    public boolean hasLoot() {
+        return !invocationCounts.isEmpty();
+    }
+
+    public Set<ResourceLocation> lootTables() {
+        return Collections.unmodifiableSet(invocationCounts.keySet());
+    }
+
+    public Set<ResourceLocation> observedItems() {
+        return Collections.unmodifiableSet(items.keySet());
+    }
+
+    /**
+     * Total invocations per loot table over all samples.
+     */
+    public Map<ResourceLocation, Long> invocationCounts() {
+        return Collections.unmodifiableMap(invocationCounts);
+    }
+
+    /**
+     * Average invocations of a table per placement.
+     */
+    public double invocationsPerPlacement(ResourceLocation tableId) {
+        if (placements == 0) {
+            return 0;
+        }
+        return invocationCounts.getOrDefault(tableId, 0L) / (double) placements;
+    }
+
+    public Map<ResourceLocation, ItemStatistics> items() {
+        return Collections.unmodifiableMap(items);
+    }
+
+    /**
+     * Average number of stacks of an item per placement.
+     */
+    public double itemFrequency(ResourceLocation itemId) {
+        ItemStatistics stats = items.get(itemId);
+        if (stats == null || placements == 0) {
+            return 0;
+        }
+        return stats.stacks() / (double) placements;
+    }
+
+    /**
+     * Serialize for the observation cache.
+     */
+    JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("placements", placements);
+
+        if (firstPlacement != null) {
+            BoundingBox box = firstPlacement.boundingBox();
+            JsonObject placement = new JsonObject();
+            placement.addProperty("origin", firstPlacement.origin().asLong());
+            JsonArray bounds = new JsonArray();
+            bounds.add(box.minX());
+            bounds.add(box.minY());
+            bounds.add(box.minZ());
+            bounds.add(box.maxX());
+            bounds.add(box.maxY());
+            bounds.add(box.maxZ());
+            placement.add("bounds", bounds);
+            placement.addProperty("timestamp", firstPlacement.timestamp());
+            placement.addProperty("source", firstPlacement.source().name());
+            json.add("firstPlacement", placement);
+        }
+
+        JsonObject tables = new JsonObject();
+        invocationCounts.forEach((tableId, count) -> tables.addProperty(tableId.toString(), count));
+        json.add("invocationCounts", tables);
+
+        JsonObject itemsJson = new JsonObject();
+        items.forEach((itemId, stats) -> {
+            JsonArray running = new JsonArray();
+            running.add(stats.stackCount.count);
+            running.add(stats.stackCount.mean);
+            running.add(stats.stackCount.m2);
+            itemsJson.add(itemId.toString(), running);
+        });
+        json.add("items", itemsJson);
+
+        return json;
+    }
+
+    /**
+     * Restore statistics written by {@link #toJson()}.
+     */
+    static StructureStatistics fromJson(ResourceLocation structureId, JsonObject json) {
+        StructureStatistics stats = new StructureStatistics(structureId);
+        stats.placements = json.get("placements").getAsInt();
+
+        if (json.has("firstPlacement")) {
+            JsonObject placement = json.getAsJsonObject("firstPlacement");
+            JsonArray bounds = placement.getAsJsonArray("bounds");
+            stats.firstPlacement = new StructurePlacement(
+                structureId,
+                BlockPos.of(placement.get("origin").getAsLong()),
+                new BoundingBox(
+                    bounds.get(0).getAsInt(), bounds.get(1).getAsInt(), bounds.get(2).getAsInt(),
+                    bounds.get(3).getAsInt(), bounds.get(4).getAsInt(), bounds.get(5).getAsInt()),
+                placement.get("timestamp").getAsLong(),
+                StructurePlacement.PlacementSource.valueOf(placement.get("source").getAsString())
+            );
+        }
+
+        for (var entry : json.getAsJsonObject("invocationCounts").entrySet()) {
+            stats.invocationCounts.put(ResourceLocation.parse(entry.getKey()), entry.getValue().getAsLong());
+        }
+
+        for (var entry : json.getAsJsonObject("items").entrySet()) {
+            JsonArray running = entry.getValue().getAsJsonArray();
+            ItemStatistics item = new ItemStatistics();
+            item.stackCount.count = running.get(0).getAsLong();
+            item.stackCount.mean = running.get(1).getAsDouble();
+            item.stackCount.m2 = running.get(2).getAsDouble();
+            stats.items.put(ResourceLocation.parse(entry.getKey()), item);
+        }
+
+        return stats;
+    }
+
+    /**
+     * Stack statistics for a single item.
+     */
+    public static final class ItemStatistics {
+        private final RunningStats stackCount = new RunningStats();
+
+        /**
+         * Total number of stacks observed.
+         */
+        public long stacks() {
+            return stackCount.count();
+        }
+
+        public double meanStackCount() {
+            return stackCount.mean();
+        }
+
+        public double stackCountVariance() {
+            return stackCount.variance();
+        }
+    }
+
+    /**
+     * Welford running mean and variance.
+     */
+    public static final class RunningStats {
+        private long count = 0;
+        private double mean = 0;
+        private double m2 = 0;
+
+        public void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double mean() {
+            return mean;
+        }
+
+        /**
+         * Sample variance (0 with fewer than two values).
+         */
+        public double variance() {
+            return count > 1 ? m2 / (count - 1) : 0;
+        }
+
+        public double stdDev() {
+            return Math.sqrt(variance());
+        }
+    }
+}
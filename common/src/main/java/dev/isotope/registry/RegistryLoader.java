@@ -1,6 +1,7 @@
 package dev.isotope.registry;
 
 import dev.isotope.Isotope;
+import dev.isotope.analysis.WorldTemplateStore;
 import net.minecraft.client.Minecraft;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.Difficulty;
@@ -12,10 +13,7 @@ import net.minecraft.world.level.WorldDataConfiguration;
 import net.minecraft.world.level.levelgen.WorldOptions;
 import net.minecraft.world.level.levelgen.presets.WorldPresets;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -89,10 +87,23 @@ public final class RegistryLoader {
             // Clean up any existing temp world
             cleanupTempWorld();
 
-            reportProgress("Creating minimal world for registry access...");
-
             Minecraft minecraft = Minecraft.getInstance();
 
+            // Reuse a previously generated world when available
+            WorldTemplateStore templates = WorldTemplateStore.getInstance();
+            if (templates.isEnabled() && templates.restore(TEMP_WORLD_NAME)) {
+                reportProgress("Opening registry world from template...");
+                minecraft.createWorldOpenFlows().openWorld(TEMP_WORLD_NAME, () -> {
+                    loading.set(false);
+                    if (completionCallback != null) {
+                        completionCallback.accept(false);
+                    }
+                });
+                return;
+            }
+
+            reportProgress("Creating minimal world for registry access...");
+
             // Minimal world settings - we just need registry access
             GameRules gameRules = new GameRules(FeatureFlags.DEFAULT_FLAGS);
 
@@ -192,6 +203,10 @@ public final class RegistryLoader {
 
         // World is closed, cleanup temp files and trigger callback
         Isotope.LOGGER.info("World closed after {} attempts, cleaning up", attempts);
+        WorldTemplateStore templates = WorldTemplateStore.getInstance();
+        if (templates.isEnabled() && !templates.hasTemplate(TEMP_WORLD_NAME)) {
+            templates.capture(TEMP_WORLD_NAME);
+        }
         cleanupTempWorld();
 
         minecraft.execute(() -> {
@@ -210,25 +225,10 @@ public final class RegistryLoader {
     }
 
     private void cleanupTempWorld() {
-        try {
-            Minecraft minecraft = Minecraft.getInstance();
-            Path savesDir = minecraft.gameDirectory.toPath().resolve("saves");
-            Path tempDir = savesDir.resolve(TEMP_WORLD_NAME);
-
-            if (Files.exists(tempDir)) {
-                Files.walk(tempDir)
-                    .sorted(Comparator.reverseOrder())
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            // Ignore cleanup errors
-                        }
-                    });
-            }
-        } catch (IOException e) {
-            Isotope.LOGGER.warn("Failed to cleanup temp world", e);
-        }
+        Path tempDir = Minecraft.getInstance().gameDirectory.toPath()
+            .resolve("saves")
+            .resolve(TEMP_WORLD_NAME);
+        WorldTemplateStore.deleteDirectory(tempDir);
     }
 
     private void reportProgress(String message) {
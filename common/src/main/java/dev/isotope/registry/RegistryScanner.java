@@ -4,6 +4,7 @@ import dev.architectury.event.events.common.LifecycleEvent;
 import dev.isotope.Isotope;
 import dev.isotope.analysis.HeadlessAnalysisWorld;
 import dev.isotope.editing.LootEditManager;
+import dev.isotope.observation.StructureObserver;
 import net.minecraft.server.MinecraftServer;
 
 /**
@@ -42,7 +43,7 @@ public final class RegistryScanner {
         LootTableRegistry.getInstance().scan(server);
         StructureLootLinker.getInstance().link();
 
-        // Pre-parse loot tables for the editor (while server is available)
+        // Pre-parse loot tables for the editor in the background (while server is available)
         LootEditManager.getInstance().preParseLootTables(server);
 
         Isotope.LOGGER.info("Registry scan complete: {} structures, {} loot tables, {} links",
@@ -71,6 +72,10 @@ public final class RegistryScanner {
         } else {
             Isotope.LOGGER.debug("Server stopping: {}", server.getWorldData().getLevelName());
         }
+        StructureObserver.getInstance().invalidateStructureIds();
+
+        // Pre-parse reads the server's resources, which close after this
+        LootEditManager.getInstance().awaitPreParse();
         currentServer = null;
     }
 
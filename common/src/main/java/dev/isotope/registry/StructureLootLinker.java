@@ -47,7 +47,7 @@ public final class StructureLootLinker {
     /**
      * Run heuristic linking between structures and loot tables.
      */
-    public void link() {
+    public synchronized void link() {
         linksByStructure.clear();
         linksByLootTable.clear();
 
@@ -245,7 +245,7 @@ public final class StructureLootLinker {
     /**
      * Add a manual link (author override).
      */
-    public void addManualLink(ResourceLocation structureId, ResourceLocation lootTableId) {
+    public synchronized void addManualLink(ResourceLocation structureId, ResourceLocation lootTableId) {
         authorAddedLinks.add(StructureLootLink.manual(structureId, lootTableId));
         // Re-run linking to apply
         link();
@@ -255,7 +255,7 @@ public final class StructureLootLinker {
     /**
      * Remove a link (author override).
      */
-    public void removeLink(ResourceLocation structureId, ResourceLocation lootTableId) {
+    public synchronized void removeLink(ResourceLocation structureId, ResourceLocation lootTableId) {
         // Remove from added if it was manually added
         authorAddedLinks.removeIf(l ->
             l.structureId().equals(structureId) && l.lootTableId().equals(lootTableId));
@@ -269,7 +269,7 @@ public final class StructureLootLinker {
     /**
      * Restore a previously removed link.
      */
-    public void restoreLink(ResourceLocation structureId, ResourceLocation lootTableId) {
+    public synchronized void restoreLink(ResourceLocation structureId, ResourceLocation lootTableId) {
         authorRemovedLinks.removeIf(r ->
             r.structureId.equals(structureId) && r.lootTableId.equals(lootTableId));
         link();
@@ -323,7 +323,7 @@ public final class StructureLootLinker {
     /**
      * Reset all data.
      */
-    public void reset() {
+    public synchronized void reset() {
         linksByStructure.clear();
         linksByLootTable.clear();
         authorAddedLinks.clear();
@@ -331,9 +331,10 @@ public final class StructureLootLinker {
     }
 
     /**
-     * Get all links (for saving).
+     * Get all links (for saving, and for loot queries on the search thread).
+     * Returns a copy; linking and loading hold the same lock.
      */
-    public List<StructureLootLink> getAllLinks() {
+    public synchronized List<StructureLootLink> getAllLinks() {
         return linksByStructure.values().stream()
             .flatMap(List::stream)
             .toList();
@@ -343,7 +344,7 @@ public final class StructureLootLinker {
      * Add a link directly (for loading from save).
      * Does not trigger re-linking.
      */
-    public void addLink(StructureLootLink link) {
+    public synchronized void addLink(StructureLootLink link) {
         linksByStructure.computeIfAbsent(link.structureId(), k -> new ArrayList<>()).add(link);
         linksByLootTable.computeIfAbsent(link.lootTableId(), k -> new ArrayList<>()).add(link);
     }
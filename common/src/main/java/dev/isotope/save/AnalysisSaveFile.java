@@ -0,0 +1,482 @@
+package dev.isotope.save;
+
+import dev.isotope.save.AnalysisSave.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Binary analysis save file (.isave).
+ *
+ * Layout:
+ * <pre>
+ *   int    magic ("ISAV")
+ *   short  format version
+ *   int    header length, header bytes (SaveMetadata, versions, config)
+ *   int    section count, then per section: byte kind, long offset, int length
+ *   ...    section data
+ * </pre>
+ *
+ * Every string (IDs, namespaces, enum names) is stored once in the STRINGS
+ * section and referenced by index from the other sections. Integers are
+ * written as varints. Listing saves only needs {@link #readHeader}, and an
+ * open file reads each section on first access.
+ *
+ * Sections of MAP_THRESHOLD bytes or more are memory-mapped and decoded in
+ * place, and the forEach methods hand out one record at a time, so a large
+ * save can fill the registries without ever being held on the heap.
+ */
+public final class AnalysisSaveFile implements Closeable {
+
+    public static final String EXTENSION = ".isave";
+
+    private static final int MAGIC = 0x49534156; // "ISAV"
+    private static final short FORMAT_VERSION = 1;
+
+    private static final byte SECTION_STRINGS = 0;
+    private static final byte SECTION_STRUCTURES = 1;
+    private static final byte SECTION_LOOT_TABLES = 2;
+    private static final byte SECTION_LINKS = 3;
+    private static final byte SECTION_SAMPLES = 4;
+
+    // Sections (and legacy JSON saves) at least this large are memory-mapped instead of read into a heap buffer
+    static final int MAP_THRESHOLD = 1 << 20;
+
+    /**
+     * Everything stored before the section table.
+     */
+    public record Header(
+        SaveMetadata metadata,
+        String minecraftVersion,
+        String isotopeVersion,
+        SavedAnalysisConfig config
+    ) {}
+
+    private record Section(long offset, int length) {}
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Header header;
+    private final Map<Byte, Section> sections;
+    private String[] strings;
+
+    private AnalysisSaveFile(Path path, FileChannel channel, Header header, Map<Byte, Section> sections) {
+        this.path = path;
+        this.channel = channel;
+        this.header = header;
+        this.sections = sections;
+    }
+
+    // ===== Writing =====
+
+    /**
+     * Write a save in binary form. The file is written next to the target
+     * and moved into place, so a failed write never leaves a truncated save.
+     */
+    public static void write(AnalysisSave save, Path path) throws IOException {
+        StringPool pool = new StringPool();
+
+        byte[] structures = encode(out -> {
+            writeVarInt(out, save.structures().size());
+            for (SavedStructure s : save.structures()) {
+                pool.write(out, s.id());
+                pool.write(out, s.namespace());
+                pool.write(out, s.path());
+            }
+        });
+
+        byte[] lootTables = encode(out -> {
+            writeVarInt(out, save.lootTables().size());
+            for (SavedLootTable t : save.lootTables()) {
+                pool.write(out, t.id());
+                pool.write(out, t.namespace());
+                pool.write(out, t.path());
+                pool.write(out, t.category());
+            }
+        });
+
+        byte[] links = encode(out -> {
+            writeVarInt(out, save.links().size());
+            for (SavedStructureLootLink link : save.links()) {
+                pool.write(out, link.structureId());
+                pool.write(out, link.lootTableId());
+                pool.write(out, link.confidence());
+                pool.write(out, link.source());
+            }
+        });
+
+        byte[] samples = encode(out -> {
+            Map<String, SavedLootSample> map = save.samples() != null ? save.samples() : Map.of();
+            writeVarInt(out, map.size());
+            for (var entry : map.entrySet()) {
+                SavedLootSample sample = entry.getValue();
+                pool.write(out, entry.getKey());
+                pool.write(out, sample.tableId());
+                writeVarInt(out, sample.sampleCount());
+                writeVarInt(out, sample.totalItemsDropped());
+                pool.write(out, sample.error());
+                List<SavedItemSample> items = sample.items() != null ? sample.items() : List.of();
+                writeVarInt(out, items.size());
+                for (SavedItemSample item : items) {
+                    pool.write(out, item.itemId());
+                    writeVarInt(out, item.occurrences());
+                    writeVarInt(out, item.totalCount());
+                    writeVarInt(out, item.minCount());
+                    writeVarInt(out, item.maxCount());
+                }
+            }
+        });
+
+        // Encoded last so it holds every string the other sections referenced
+        byte[] stringData = encode(pool::writeTo);
+
+        byte[] header = encode(out -> writeHeader(out, save));
+
+        byte[] kinds = {SECTION_STRINGS, SECTION_STRUCTURES, SECTION_LOOT_TABLES, SECTION_LINKS, SECTION_SAMPLES};
+        byte[][] data = {stringData, structures, lootTables, links, samples};
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(header.length);
+            out.write(header);
+
+            long offset = 4 + 2 + 4 + header.length + 4 + (long) kinds.length * (1 + 8 + 4);
+            out.writeInt(kinds.length);
+            for (int i = 0; i < kinds.length; i++) {
+                out.writeByte(kinds[i]);
+                out.writeLong(offset);
+                out.writeInt(data[i].length);
+                offset += data[i].length;
+            }
+            for (byte[] section : data) {
+                out.write(section);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeHeader(DataOutputStream out, AnalysisSave save) throws IOException {
+        SaveMetadata meta = save.toMetadata();
+        out.writeUTF(meta.id());
+        out.writeUTF(meta.name() != null ? meta.name() : "");
+        out.writeLong(meta.timestamp());
+        out.writeInt(meta.structureCount());
+        out.writeInt(meta.lootTableCount());
+        out.writeInt(meta.linkedCount());
+        out.writeUTF(save.minecraftVersion() != null ? save.minecraftVersion() : "");
+        out.writeUTF(save.isotopeVersion() != null ? save.isotopeVersion() : "");
+        SavedAnalysisConfig config = save.config() != null ? save.config() : new SavedAnalysisConfig(100, true);
+        out.writeInt(config.sampleCount());
+        out.writeBoolean(config.analyzeAllLootTables());
+    }
+
+    // ===== Reading =====
+
+    /**
+     * Read only the header of a save file, for listing.
+     */
+    public static Header readHeader(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1024))) {
+            return readPreamble(in);
+        }
+    }
+
+    /**
+     * Open a save file. Sections are read when first requested.
+     */
+    public static AnalysisSaveFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel), 1024));
+            Header header = readPreamble(in);
+
+            int count = in.readInt();
+            Map<Byte, Section> sections = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte kind = in.readByte();
+                long offset = in.readLong();
+                int length = in.readInt();
+                if (offset < 0 || length < 0 || offset + length > channel.size()) {
+                    throw new IOException("Section " + kind + " lies outside the file");
+                }
+                sections.put(kind, new Section(offset, length));
+            }
+            return new AnalysisSaveFile(path, channel, header, sections);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Header readPreamble(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an Isotope save file");
+        }
+        short version = in.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported save format version " + version);
+        }
+
+        int length = in.readInt();
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes));
+        String id = header.readUTF();
+        String name = header.readUTF();
+        long timestamp = header.readLong();
+        int structureCount = header.readInt();
+        int lootTableCount = header.readInt();
+        int linkedCount = header.readInt();
+        String minecraftVersion = header.readUTF();
+        String isotopeVersion = header.readUTF();
+        SavedAnalysisConfig config = new SavedAnalysisConfig(header.readInt(), header.readBoolean());
+
+        return new Header(
+            new SaveMetadata(id, name, timestamp, structureCount, lootTableCount, linkedCount),
+            minecraftVersion,
+            isotopeVersion,
+            config
+        );
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    public List<SavedStructure> readStructures() throws IOException {
+        List<SavedStructure> result = new ArrayList<>(header.metadata().structureCount());
+        forEachStructure(result::add);
+        return result;
+    }
+
+    public List<SavedLootTable> readLootTables() throws IOException {
+        List<SavedLootTable> result = new ArrayList<>(header.metadata().lootTableCount());
+        forEachLootTable(result::add);
+        return result;
+    }
+
+    public List<SavedStructureLootLink> readLinks() throws IOException {
+        List<SavedStructureLootLink> result = new ArrayList<>();
+        forEachLink(result::add);
+        return result;
+    }
+
+    public Map<String, SavedLootSample> readSamples() throws IOException {
+        Map<String, SavedLootSample> result = new HashMap<>();
+        forEachSample(result::put);
+        return result;
+    }
+
+    /**
+     * Decode structures one at a time without collecting them.
+     */
+    public void forEachStructure(Consumer<SavedStructure> consumer) throws IOException {
+        DataInputStream in = section(SECTION_STRUCTURES);
+        String[] pool = strings();
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(new SavedStructure(readString(in, pool), readString(in, pool), readString(in, pool)));
+        }
+    }
+
+    /**
+     * Decode loot tables one at a time without collecting them.
+     */
+    public void forEachLootTable(Consumer<SavedLootTable> consumer) throws IOException {
+        DataInputStream in = section(SECTION_LOOT_TABLES);
+        String[] pool = strings();
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(new SavedLootTable(
+                readString(in, pool), readString(in, pool), readString(in, pool), readString(in, pool)));
+        }
+    }
+
+    /**
+     * Decode links one at a time without collecting them.
+     */
+    public void forEachLink(Consumer<SavedStructureLootLink> consumer) throws IOException {
+        DataInputStream in = section(SECTION_LINKS);
+        String[] pool = strings();
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(new SavedStructureLootLink(
+                readString(in, pool), readString(in, pool), readString(in, pool), readString(in, pool)));
+        }
+    }
+
+    /**
+     * Decode samples one at a time without collecting them.
+     */
+    public void forEachSample(BiConsumer<String, SavedLootSample> consumer) throws IOException {
+        DataInputStream in = section(SECTION_SAMPLES);
+        String[] pool = strings();
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            String key = readString(in, pool);
+            String tableId = readString(in, pool);
+            int sampleCount = readVarInt(in);
+            int totalItemsDropped = readVarInt(in);
+            String error = readString(in, pool);
+            int itemCount = readVarInt(in);
+            List<SavedItemSample> items = new ArrayList<>(itemCount);
+            for (int j = 0; j < itemCount; j++) {
+                items.add(new SavedItemSample(
+                    readString(in, pool), readVarInt(in), readVarInt(in), readVarInt(in), readVarInt(in)));
+            }
+            consumer.accept(key, new SavedLootSample(tableId, sampleCount, totalItemsDropped, items, error));
+        }
+    }
+
+    /**
+     * Read every section into a full save.
+     */
+    public AnalysisSave readAll() throws IOException {
+        SaveMetadata meta = header.metadata();
+        return new AnalysisSave(
+            meta.id(),
+            meta.name(),
+            meta.timestamp(),
+            header.minecraftVersion(),
+            header.isotopeVersion(),
+            header.config(),
+            readStructures(),
+            readLootTables(),
+            readLinks(),
+            readSamples()
+        );
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String[] strings() throws IOException {
+        if (strings == null) {
+            DataInputStream in = section(SECTION_STRINGS);
+            int count = readVarInt(in);
+            String[] pool = new String[count];
+            for (int i = 0; i < count; i++) {
+                pool[i] = in.readUTF();
+            }
+            strings = pool;
+        }
+        return strings;
+    }
+
+    private DataInputStream section(byte kind) throws IOException {
+        Section section = sections.get(kind);
+        if (section == null) {
+            throw new IOException("Save is missing section " + kind);
+        }
+
+        if (section.length() >= MAP_THRESHOLD) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, section.offset(), section.length());
+            return new DataInputStream(new ByteBufferInputStream(mapped));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(section.length());
+        long position = section.offset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Truncated section " + kind);
+            }
+            position += read;
+        }
+        return new DataInputStream(new ByteArrayInputStream(buffer.array()));
+    }
+
+    // ===== Encoding helpers =====
+
+    @FunctionalInterface
+    private interface SectionWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(SectionWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(DataInput in, String[] pool) throws IOException {
+        int index = readVarInt(in);
+        if (index == 0) {
+            return null;
+        }
+        if (index > pool.length) {
+            throw new IOException("String index " + index + " out of range");
+        }
+        return pool[index - 1];
+    }
+
+    /**
+     * Interns strings in first-use order. Index 0 is reserved for null.
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void write(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                writeVarInt(out, 0);
+                return;
+            }
+            Integer index = indices.get(value);
+            if (index == null) {
+                values.add(value);
+                index = values.size();
+                indices.put(value, index);
+            }
+            writeVarInt(out, index);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            writeVarInt(out, values.size());
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package dev.isotope.save;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import dev.isotope.Isotope;
 import dev.isotope.data.StructureLootLink;
 import dev.isotope.registry.LootTableRegistry;
@@ -11,10 +13,15 @@ import dev.isotope.save.AnalysisSave.*;
 import net.minecraft.SharedConstants;
 import net.minecraft.client.Minecraft;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,6 +31,11 @@ import java.util.stream.Stream;
  * Manages saving and loading analysis data to/from disk.
  * Saves are stored in .minecraft/isotope/analyses/
  *
+ * Saves are written in the binary AnalysisSaveFile format and indexed by
+ * a SaveCatalog, so listing and lookup by ID do not open save files unless
+ * they changed. Older JSON saves are still listed and loadable, and any
+ * save can be exported as JSON to analyses/json/.
+ *
  * This is the persistence layer for the modpack IDE - all work should
  * be saveable and loadable between sessions.
  */
@@ -32,14 +44,24 @@ public final class AnalysisSaveManager {
     private static final AnalysisSaveManager INSTANCE = new AnalysisSaveManager();
     private static final String ISOTOPE_VERSION = "0.1.0";
     private static final SimpleDateFormat FILENAME_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+    private static final String JSON_EXTENSION = ".json";
+
+    /**
+     * On-disk format for a save.
+     */
+    public enum SaveFormat {
+        BINARY,
+        JSON
+    }
 
     private final Gson gson = new GsonBuilder()
         .setPrettyPrinting()
         .create();
 
     private Path savesDirectory;
+    private SaveCatalog catalog;
 
-    // Currently loaded save (for tracking edits)
+    // Currently loaded save (for tracking edits); only kept in memory for saves made this session
     private AnalysisSave currentSave;
     private String currentSaveId;
 
@@ -60,6 +82,9 @@ public final class AnalysisSaveManager {
 
         try {
             Files.createDirectories(savesDirectory);
+            if (catalog == null) {
+                catalog = new SaveCatalog(savesDirectory, this::readMetadata);
+            }
             Isotope.LOGGER.info("ISOTOPE saves directory: {}", savesDirectory);
         } catch (IOException e) {
             Isotope.LOGGER.error("Failed to create saves directory", e);
@@ -76,22 +101,43 @@ public final class AnalysisSaveManager {
         return savesDirectory;
     }
 
+    private SaveCatalog getCatalog() {
+        if (catalog == null) {
+            init();
+        }
+        return catalog;
+    }
+
     /**
      * Save the current registry state to a new file.
      * @param name Optional custom name for the save (null = auto-generated timestamp name)
      * @return The created save metadata, or empty if failed
      */
     public Optional<SaveMetadata> saveCurrentAnalysis(String name) {
+        return saveCurrentAnalysis(name, SaveFormat.BINARY);
+    }
+
+    /**
+     * Save the current registry state to a new file in the given format.
+     * @param name Optional custom name for the save (null = auto-generated timestamp name)
+     * @return The created save metadata, or empty if failed
+     */
+    public Optional<SaveMetadata> saveCurrentAnalysis(String name, SaveFormat format) {
         try {
             // Build save from current registry state
             AnalysisSave save = buildSaveFromCurrentState(name);
 
             // Write to file
-            String filename = generateFilename(save);
+            String filename = generateFilename(save, format == SaveFormat.JSON ? JSON_EXTENSION : AnalysisSaveFile.EXTENSION);
             Path savePath = getSavesDirectory().resolve(filename);
 
-            String json = gson.toJson(save);
-            Files.writeString(savePath, json, StandardCharsets.UTF_8);
+            if (format == SaveFormat.JSON) {
+                Files.writeString(savePath, gson.toJson(save), StandardCharsets.UTF_8);
+            } else {
+                AnalysisSaveFile.write(save, savePath);
+            }
+
+            getCatalog().put(savePath, save.toMetadata());
 
             currentSave = save;
             currentSaveId = save.id();
@@ -150,7 +196,7 @@ public final class AnalysisSaveManager {
         );
     }
 
-    private String generateFilename(AnalysisSave save) {
+    private String generateFilename(AnalysisSave save, String extension) {
         // Sanitize name for filename
         String safeName = save.name()
             .replaceAll("[^a-zA-Z0-9_-]", "_")
@@ -158,32 +204,53 @@ public final class AnalysisSaveManager {
         if (safeName.length() > 30) {
             safeName = safeName.substring(0, 30);
         }
-        return safeName + "_" + save.id().substring(0, 8) + ".json";
+        return safeName + "_" + save.id().substring(0, 8) + extension;
+    }
+
+    static boolean isSaveFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(AnalysisSaveFile.EXTENSION) || name.endsWith(JSON_EXTENSION);
     }
 
     /**
-     * List all available saves with metadata.
+     * Read a save's metadata. Binary saves only read the header;
+     * legacy JSON saves have to be parsed in full.
      */
-    public List<SaveMetadata> listSaves() {
-        List<SaveMetadata> result = new ArrayList<>();
+    private SaveMetadata readMetadata(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(AnalysisSaveFile.EXTENSION)) {
+            return AnalysisSaveFile.readHeader(path).metadata();
+        }
+        AnalysisSave save = gson.fromJson(Files.readString(path, StandardCharsets.UTF_8), AnalysisSave.class);
+        if (save == null) {
+            throw new IOException("Empty save file");
+        }
+        return save.toMetadata();
+    }
 
-        try (Stream<Path> files = Files.list(getSavesDirectory())) {
-            files.filter(p -> p.toString().endsWith(".json"))
-                .forEach(path -> {
-                    try {
-                        // Read and parse just enough for metadata
-                        String json = Files.readString(path, StandardCharsets.UTF_8);
-                        AnalysisSave save = gson.fromJson(json, AnalysisSave.class);
-                        if (save != null) {
-                            result.add(save.toMetadata());
-                        }
-                    } catch (Exception e) {
-                        Isotope.LOGGER.warn("Failed to read save metadata: {}", path, e);
-                    }
-                });
-        } catch (IOException e) {
-            Isotope.LOGGER.error("Failed to list saves", e);
+    /**
+     * Find the file holding a save through the catalog.
+     */
+    private Optional<Path> findSavePath(String saveId) {
+        return getCatalog().find(saveId);
+    }
+
+    /**
+     * Read a full save from either format.
+     */
+    private AnalysisSave readSave(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(AnalysisSaveFile.EXTENSION)) {
+            try (AnalysisSaveFile file = AnalysisSaveFile.open(path)) {
+                return file.readAll();
+            }
         }
+        return gson.fromJson(Files.readString(path, StandardCharsets.UTF_8), AnalysisSave.class);
+    }
+
+    /**
+     * List all available saves with metadata.
+     */
+    public List<SaveMetadata> listSaves() {
+        List<SaveMetadata> result = new ArrayList<>(getCatalog().list());
 
         // Sort by timestamp, newest first
         result.sort((a, b) -> Long.compare(b.timestamp(), a.timestamp()));
@@ -191,94 +258,166 @@ public final class AnalysisSaveManager {
     }
 
     /**
-     * Load a full save by ID.
+     * Load a save by ID into the registries.
+     * The save is streamed from disk, so its contents are never held in memory as a whole.
      * @param saveId The ID of the save to load
-     * @return The loaded save, or empty if not found
+     * @return The loaded save's metadata, or empty if not found
      */
-    public Optional<AnalysisSave> loadSave(String saveId) {
-        try (Stream<Path> files = Files.list(getSavesDirectory())) {
-            Optional<Path> savePath = files
-                .filter(p -> p.toString().endsWith(".json"))
-                .filter(path -> {
-                    try {
-                        String json = Files.readString(path, StandardCharsets.UTF_8);
-                        AnalysisSave save = gson.fromJson(json, AnalysisSave.class);
-                        return save != null && saveId.equals(save.id());
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .findFirst();
-
-            if (savePath.isPresent()) {
-                String json = Files.readString(savePath.get(), StandardCharsets.UTF_8);
-                AnalysisSave save = gson.fromJson(json, AnalysisSave.class);
+    public Optional<SaveMetadata> loadSave(String saveId) {
+        Optional<Path> savePath = findSavePath(saveId);
+        if (savePath.isEmpty()) {
+            return Optional.empty();
+        }
 
-                // Restore to registries
-                restoreToRegistries(save);
+        try {
+            long start = System.nanoTime();
+            SaveMetadata metadata = restoreToRegistries(savePath.get());
 
-                currentSave = save;
-                currentSaveId = save.id();
+            currentSave = null;
+            currentSaveId = metadata.id();
 
-                Isotope.LOGGER.info("Loaded save: {} ({} structures, {} tables, {} links)",
-                    save.name(), save.structures().size(), save.lootTables().size(), save.links().size());
+            Isotope.LOGGER.info("Loaded save: {} ({} structures, {} tables, {} linked) in {} ms",
+                metadata.name(), metadata.structureCount(), metadata.lootTableCount(), metadata.linkedCount(),
+                (System.nanoTime() - start) / 1_000_000);
 
-                return Optional.of(save);
-            }
-        } catch (IOException e) {
+            return Optional.of(metadata);
+        } catch (Exception e) {
             Isotope.LOGGER.error("Failed to load save: {}", saveId, e);
+
+            // Don't leave a partially restored save behind
+            StructureRegistry.getInstance().reset();
+            LootTableRegistry.getInstance().reset();
+            StructureLootLinker.getInstance().reset();
         }
 
         return Optional.empty();
     }
 
     /**
-     * Restore a save's data to the registries.
+     * Restore a save file's data to the registries, one record at a time.
      */
-    private void restoreToRegistries(AnalysisSave save) {
+    private SaveMetadata restoreToRegistries(Path path) throws IOException {
         // Clear existing data
         StructureRegistry.getInstance().reset();
         LootTableRegistry.getInstance().reset();
         StructureLootLinker.getInstance().reset();
 
-        // Restore structures
-        for (SavedStructure ss : save.structures()) {
-            StructureRegistry.getInstance().addFromSave(ss.toStructureInfo());
+        SaveMetadata metadata;
+        if (path.getFileName().toString().endsWith(AnalysisSaveFile.EXTENSION)) {
+            try (AnalysisSaveFile file = AnalysisSaveFile.open(path)) {
+                file.forEachStructure(ss -> StructureRegistry.getInstance().addFromSave(ss.toStructureInfo()));
+                file.forEachLootTable(slt -> LootTableRegistry.getInstance().addFromSave(slt.toLootTableInfo()));
+                file.forEachLink(link -> StructureLootLinker.getInstance().addLink(link.toLink()));
+                metadata = file.getHeader().metadata();
+            }
+        } else {
+            metadata = restoreFromJson(path);
         }
 
-        // Restore loot tables
-        for (SavedLootTable slt : save.lootTables()) {
-            LootTableRegistry.getInstance().addFromSave(slt.toLootTableInfo());
+        Isotope.LOGGER.info("Restored registries from save");
+        return metadata;
+    }
+
+    /**
+     * Stream a legacy JSON save into the registries, decoded element by
+     * element instead of being read into a String. Files of
+     * AnalysisSaveFile.MAP_THRESHOLD bytes or more are memory-mapped.
+     */
+    private SaveMetadata restoreFromJson(Path path) throws IOException {
+        String id = null;
+        String name = null;
+        long timestamp = 0;
+        int structureCount = 0;
+        int lootTableCount = 0;
+        Set<String> linkedStructures = new HashSet<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             JsonReader reader = new JsonReader(openReader(channel))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = nextStringOrNull(reader);
+                    case "name" -> name = nextStringOrNull(reader);
+                    case "timestamp" -> timestamp = reader.nextLong();
+                    case "structures" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            SavedStructure ss = gson.fromJson(reader, SavedStructure.class);
+                            StructureRegistry.getInstance().addFromSave(ss.toStructureInfo());
+                            structureCount++;
+                        }
+                        reader.endArray();
+                    }
+                    case "lootTables" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            SavedLootTable slt = gson.fromJson(reader, SavedLootTable.class);
+                            LootTableRegistry.getInstance().addFromSave(slt.toLootTableInfo());
+                            lootTableCount++;
+                        }
+                        reader.endArray();
+                    }
+                    case "links" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            SavedStructureLootLink link = gson.fromJson(reader, SavedStructureLootLink.class);
+                            StructureLootLinker.getInstance().addLink(link.toLink());
+                            linkedStructures.add(link.structureId());
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
         }
 
-        // Restore links
-        for (SavedStructureLootLink link : save.links()) {
-            StructureLootLinker.getInstance().addLink(link.toLink());
+        if (id == null) {
+            throw new IOException("Save has no id: " + path);
         }
+        return new SaveMetadata(id, name, timestamp, structureCount, lootTableCount, linkedStructures.size());
+    }
 
-        Isotope.LOGGER.info("Restored registries from save");
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static Reader openReader(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < AnalysisSaveFile.MAP_THRESHOLD || size > Integer.MAX_VALUE) {
+            // Small files gain nothing from a mapping, and too large ones do not fit a single one
+            return new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        return new InputStreamReader(new ByteBufferInputStream(buffer), StandardCharsets.UTF_8);
     }
 
     /**
      * Delete a save by ID.
+     *
+     * A save loaded this session may still be memory-mapped (large JSON
+     * saves and large binary sections). Mappings are released only when
+     * garbage collected, and Windows refuses to delete a mapped file; in
+     * that case this returns false and the save can be deleted after a
+     * restart.
      */
     public boolean deleteSave(String saveId) {
-        try (Stream<Path> files = Files.list(getSavesDirectory())) {
-            Optional<Path> savePath = files
-                .filter(p -> p.toString().endsWith(".json"))
-                .filter(path -> {
-                    try {
-                        String json = Files.readString(path, StandardCharsets.UTF_8);
-                        AnalysisSave save = gson.fromJson(json, AnalysisSave.class);
-                        return save != null && saveId.equals(save.id());
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .findFirst();
+        try {
+            Optional<Path> savePath = findSavePath(saveId);
 
             if (savePath.isPresent()) {
-                Files.delete(savePath.get());
+                try {
+                    Files.delete(savePath.get());
+                } catch (AccessDeniedException e) {
+                    Isotope.LOGGER.warn("Could not delete save {}: the file is still mapped from loading it, " +
+                        "delete it after restarting", saveId);
+                    return false;
+                }
+                getCatalog().remove(saveId);
                 Isotope.LOGGER.info("Deleted save: {}", saveId);
 
                 if (saveId.equals(currentSaveId)) {
@@ -293,12 +432,39 @@ public final class AnalysisSaveManager {
         return false;
     }
 
+    /**
+     * Export a save as pretty-printed JSON to analyses/json/.
+     * Exports live in a subdirectory so they are not listed as saves.
+     * @return The path of the written file, or empty if failed
+     */
+    public Optional<Path> exportSaveAsJson(String saveId) {
+        try {
+            Optional<Path> savePath = findSavePath(saveId);
+            if (savePath.isEmpty()) {
+                return Optional.empty();
+            }
+
+            AnalysisSave save = readSave(savePath.get());
+            Path exportDir = getSavesDirectory().resolve("json");
+            Files.createDirectories(exportDir);
+
+            Path exportPath = exportDir.resolve(generateFilename(save, JSON_EXTENSION));
+            Files.writeString(exportPath, gson.toJson(save), StandardCharsets.UTF_8);
+
+            Isotope.LOGGER.info("Exported save {} as JSON: {}", saveId, exportPath);
+            return Optional.of(exportPath);
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to export save as JSON: {}", saveId, e);
+            return Optional.empty();
+        }
+    }
+
     /**
      * Check if any saves exist.
      */
     public boolean hasSaves() {
         try (Stream<Path> files = Files.list(getSavesDirectory())) {
-            return files.anyMatch(p -> p.toString().endsWith(".json"));
+            return files.anyMatch(AnalysisSaveManager::isSaveFile);
         } catch (IOException e) {
             return false;
         }
@@ -306,16 +472,26 @@ public final class AnalysisSaveManager {
 
     /**
      * Get the currently loaded save (if any).
+     * Saves loaded from disk are read back from their file on each call.
      */
     public Optional<AnalysisSave> getCurrentSave() {
-        return Optional.ofNullable(currentSave);
+        if (currentSave != null || currentSaveId == null) {
+            return Optional.ofNullable(currentSave);
+        }
+        try {
+            Optional<Path> savePath = findSavePath(currentSaveId);
+            return savePath.isPresent() ? Optional.ofNullable(readSave(savePath.get())) : Optional.empty();
+        } catch (Exception e) {
+            Isotope.LOGGER.error("Failed to read current save: {}", currentSaveId, e);
+            return Optional.empty();
+        }
     }
 
     /**
      * Check if there's a current save loaded.
      */
     public boolean hasCurrentSave() {
-        return currentSave != null;
+        return currentSaveId != null;
     }
 
     /**
@@ -0,0 +1,197 @@
+package dev.isotope.save;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dev.isotope.Isotope;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Index of the saves directory: save ID to filename and SaveMetadata.
+ *
+ * Each entry remembers the size and modification time of its file. Lookups
+ * by ID are a map hit plus one stat of the file; listing stats every file
+ * and only re-reads metadata for files that were added or changed since
+ * the catalog was written, so saves copied in by other tools are picked up.
+ *
+ * Persists to .minecraft/isotope/analyses/catalog.idx
+ */
+final class SaveCatalog {
+
+    static final String FILENAME = "catalog.idx";
+    private static final int FORMAT_VERSION = 1;
+
+    @FunctionalInterface
+    interface MetadataReader {
+        SaveMetadata read(Path path) throws IOException;
+    }
+
+    private record Entry(String filename, long size, long lastModified, SaveMetadata metadata) {}
+
+    private record CatalogFile(int version, List<Entry> entries) {}
+
+    private final Path directory;
+    private final MetadataReader reader;
+    private final Gson gson = new GsonBuilder().create();
+
+    // Save ID -> entry
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean loaded = false;
+
+    SaveCatalog(Path directory, MetadataReader reader) {
+        this.directory = directory;
+        this.reader = reader;
+    }
+
+    /**
+     * All saves in the directory, bringing the catalog up to date first.
+     */
+    synchronized List<SaveMetadata> list() {
+        ensureLoaded();
+        refresh();
+        List<SaveMetadata> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            result.add(entry.metadata());
+        }
+        return result;
+    }
+
+    /**
+     * Find the file holding a save. Rescans the directory once if the
+     * catalog has no entry or the entry's file changed.
+     */
+    synchronized Optional<Path> find(String saveId) {
+        ensureLoaded();
+        Entry entry = entries.get(saveId);
+        if (entry != null && matches(entry)) {
+            return Optional.of(directory.resolve(entry.filename()));
+        }
+
+        refresh();
+        entry = entries.get(saveId);
+        return entry != null ? Optional.of(directory.resolve(entry.filename())) : Optional.empty();
+    }
+
+    /**
+     * Record a newly written save.
+     */
+    synchronized void put(Path file, SaveMetadata metadata) {
+        ensureLoaded();
+        try {
+            entries.put(metadata.id(), new Entry(file.getFileName().toString(),
+                Files.size(file), Files.getLastModifiedTime(file).toMillis(), metadata));
+            save();
+        } catch (IOException e) {
+            Isotope.LOGGER.warn("Failed to add {} to the save catalog: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Forget a deleted save.
+     */
+    synchronized void remove(String saveId) {
+        ensureLoaded();
+        if (entries.remove(saveId) != null) {
+            save();
+        }
+    }
+
+    private boolean matches(Entry entry) {
+        Path file = directory.resolve(entry.filename());
+        try {
+            return Files.size(file) == entry.size()
+                && Files.getLastModifiedTime(file).toMillis() == entry.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sync the catalog with the directory: drop entries whose file is gone,
+     * re-read metadata for new or modified files, and persist if anything changed.
+     */
+    private void refresh() {
+        Map<String, Entry> byFilename = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            byFilename.put(entry.filename(), entry);
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(AnalysisSaveManager::isSaveFile).toList();
+        } catch (IOException e) {
+            Isotope.LOGGER.error("Failed to list saves", e);
+            return;
+        }
+
+        Map<String, Entry> fresh = new HashMap<>();
+        boolean changed = false;
+        for (Path file : files) {
+            String filename = file.getFileName().toString();
+            Entry entry = byFilename.get(filename);
+            if (entry == null || !matches(entry)) {
+                try {
+                    entry = new Entry(filename, Files.size(file),
+                        Files.getLastModifiedTime(file).toMillis(), reader.read(file));
+                    changed = true;
+                } catch (Exception e) {
+                    Isotope.LOGGER.warn("Failed to read save metadata: {}", file, e);
+                    continue;
+                }
+            }
+            fresh.put(entry.metadata().id(), entry);
+        }
+
+        if (changed || fresh.size() != entries.size()) {
+            entries.clear();
+            entries.putAll(fresh);
+            save();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        Path path = directory.resolve(FILENAME);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            CatalogFile file = gson.fromJson(Files.readString(path, StandardCharsets.UTF_8), CatalogFile.class);
+            if (file == null || file.version() != FORMAT_VERSION || file.entries() == null) {
+                Isotope.LOGGER.info("Rebuilding save catalog");
+                return;
+            }
+            for (Entry entry : file.entries()) {
+                if (entry != null && entry.metadata() != null && entry.filename() != null) {
+                    entries.put(entry.metadata().id(), entry);
+                }
+            }
+        } catch (Exception e) {
+            Isotope.LOGGER.warn("Failed to read save catalog, rebuilding: {}", e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private void save() {
+        try {
+            Path path = directory.resolve(FILENAME);
+            Path temp = directory.resolve(FILENAME + ".tmp");
+            String json = gson.toJson(new CatalogFile(FORMAT_VERSION, new ArrayList<>(entries.values())));
+            Files.writeString(temp, json, StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Isotope.LOGGER.error("Failed to save save catalog", e);
+        }
+    }
+}
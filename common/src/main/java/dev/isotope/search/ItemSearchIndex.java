@@ -0,0 +1,174 @@
+package dev.isotope.search;
+
+import dev.isotope.Isotope;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.locale.Language;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.*;
+
+/**
+ * Shared search index over the item registry, used by the item pickers.
+ *
+ * Built on first use: every item's ID and display name go into a
+ * TrigramIndex, and items are bucketed by namespace, so a keystroke costs a
+ * few posting list lookups instead of a pass over the registry that creates
+ * an ItemStack per item. Display names depend on the language, so the index
+ * is rebuilt when the language or the size of the registry changes.
+ */
+public final class ItemSearchIndex {
+
+    private static final ItemSearchIndex INSTANCE = new ItemSearchIndex();
+
+    private final TrigramIndex textIndex = new TrigramIndex();
+
+    // Items in registry order; the array index is the document ID
+    private Item[] items = new Item[0];
+    private ResourceLocation[] ids = new ResourceLocation[0];
+    private int[] namespaceOf = new int[0];
+
+    // Sorted namespaces and the items in each, in registry order
+    private List<String> namespaces = List.of();
+    private int[][] namespaceItems = new int[0][];
+
+    // What the index was built for
+    private Language builtForLanguage = null;
+    private int builtForSize = -1;
+
+    private ItemSearchIndex() {}
+
+    public static ItemSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Namespaces that have items, sorted.
+     */
+    public synchronized List<String> getNamespaces() {
+        ensureBuilt();
+        return namespaces;
+    }
+
+    /**
+     * Find items whose ID or display name matches the query, best matches
+     * first (exact, prefix, word prefix, substring, then close misspellings).
+     * A blank query lists items in registry order.
+     *
+     * @param namespace only items from this namespace, or null for all
+     * @param limit most items to return
+     */
+    public synchronized List<Item> search(String query, String namespace, int limit) {
+        ensureBuilt();
+
+        int ns = namespace == null ? -1 : namespaces.indexOf(namespace);
+        if (namespace != null && ns < 0) {
+            return List.of();
+        }
+
+        if (query == null || query.isBlank()) {
+            List<Item> result = new ArrayList<>();
+            if (ns < 0) {
+                for (int doc = 0; doc < items.length && result.size() < limit; doc++) {
+                    result.add(items[doc]);
+                }
+            } else {
+                for (int doc : namespaceItems[ns]) {
+                    if (result.size() >= limit) break;
+                    result.add(items[doc]);
+                }
+            }
+            return result;
+        }
+
+        // Best score + 1 per item, 0 = no match
+        int[] scores = new int[items.length];
+        List<Integer> docs = new ArrayList<>();
+        textIndex.search(query, (doc, score) -> {
+            if (ns >= 0 && namespaceOf[doc] != ns) {
+                return;
+            }
+            if (scores[doc] == 0) {
+                docs.add(doc);
+                scores[doc] = score + 1;
+            } else {
+                scores[doc] = Math.min(scores[doc], score + 1);
+            }
+        });
+
+        docs.sort(Comparator.<Integer>comparingInt(doc -> scores[doc]).thenComparingInt(doc -> doc));
+
+        List<Item> result = new ArrayList<>(Math.min(limit, docs.size()));
+        for (int i = 0; i < docs.size() && i < limit; i++) {
+            result.add(items[docs.get(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Drop the index; it is rebuilt on next use.
+     */
+    public synchronized void invalidate() {
+        builtForLanguage = null;
+        builtForSize = -1;
+    }
+
+    private void ensureBuilt() {
+        if (builtForLanguage == Language.getInstance() && builtForSize == BuiltInRegistries.ITEM.size()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        textIndex.clear();
+
+        List<Item> itemList = new ArrayList<>();
+        List<ResourceLocation> idList = new ArrayList<>();
+        for (var entry : BuiltInRegistries.ITEM.entrySet()) {
+            Item item = entry.getValue();
+            if (item == Items.AIR) continue;
+            itemList.add(item);
+            idList.add(entry.getKey().location());
+        }
+
+        items = itemList.toArray(new Item[0]);
+        ids = idList.toArray(new ResourceLocation[0]);
+
+        Set<String> namespaceSet = new TreeSet<>();
+        for (ResourceLocation id : ids) {
+            namespaceSet.add(id.getNamespace());
+        }
+        namespaces = List.copyOf(namespaceSet);
+
+        Map<String, Integer> namespaceIndex = new HashMap<>();
+        for (int i = 0; i < namespaces.size(); i++) {
+            namespaceIndex.put(namespaces.get(i), i);
+        }
+
+        namespaceOf = new int[items.length];
+        int[] bucketSizes = new int[namespaces.size()];
+        for (int doc = 0; doc < items.length; doc++) {
+            namespaceOf[doc] = namespaceIndex.get(ids[doc].getNamespace());
+            bucketSizes[namespaceOf[doc]]++;
+        }
+        namespaceItems = new int[namespaces.size()][];
+        for (int i = 0; i < namespaceItems.length; i++) {
+            namespaceItems[i] = new int[bucketSizes[i]];
+        }
+        int[] fill = new int[namespaces.size()];
+        for (int doc = 0; doc < items.length; doc++) {
+            namespaceItems[namespaceOf[doc]][fill[namespaceOf[doc]]++] = doc;
+        }
+
+        for (int doc = 0; doc < items.length; doc++) {
+            textIndex.add(ids[doc].toString(), doc);
+            textIndex.add(new ItemStack(items[doc]).getHoverName().getString(), doc);
+        }
+
+        builtForLanguage = Language.getInstance();
+        builtForSize = BuiltInRegistries.ITEM.size();
+        Isotope.LOGGER.debug("Item search index built: {} items, {} namespaces in {}ms",
+            items.length, namespaces.size(), System.currentTimeMillis() - start);
+    }
+}
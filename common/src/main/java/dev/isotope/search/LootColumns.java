@@ -0,0 +1,236 @@
+package dev.isotope.search;
+
+import dev.isotope.analysis.ExpectedValueEngine.ItemExpectation;
+import dev.isotope.data.loot.LootCondition;
+import dev.isotope.data.loot.LootEntry;
+import dev.isotope.data.loot.LootFunction;
+import dev.isotope.data.loot.LootPool;
+import dev.isotope.data.loot.LootTableStructure;
+import dev.isotope.data.loot.NumberProvider;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Column store of loot entries for LootQuery: one row per top-level entry
+ * of every table, one array per attribute.
+ *
+ * String attributes are dictionary-encoded: rows hold an int code and each
+ * distinct value is stored once, so a string comparison is decided once
+ * per distinct value and then applied to the rows with an int lookup.
+ * Attributes of the table (type, namespace, structures) are stored per
+ * table code rather than per row.
+ */
+final class LootColumns {
+
+    final int size;
+
+    // Per row
+    final int[] table;
+    final int[] pool;       // 1-based, as shown in the UI
+    final int[] entry;      // 1-based
+    final int[] item;       // Code in items, 0 = not an item entry
+    final int[] kind;       // Code in kinds (entry type)
+    final int[] weight;
+    final double[] share;   // Weight / total weight of the pool
+    final double[] minCount;
+    final double[] maxCount;
+    final double[] count;   // Mean stack size
+    final double[] expected; // ExpectedValueEngine count of the entry's item per table open
+    final int[] conditionCount;
+    final int[] conditionSet; // Code in conditionSets
+
+    // Dictionaries
+    final List<ResourceLocation> tables;
+    final List<String> items;
+    final List<String> kinds;
+    final List<List<String>> conditionSets;
+
+    // Per table code
+    final String[] tableIds;
+    final String[] tableTypes;
+    final String[] tableNamespaces;
+    final List<List<String>> tableStructures;
+
+    private LootColumns(Builder b) {
+        size = b.rows;
+        table = Arrays.copyOf(b.table, size);
+        pool = Arrays.copyOf(b.pool, size);
+        entry = Arrays.copyOf(b.entry, size);
+        item = Arrays.copyOf(b.item, size);
+        kind = Arrays.copyOf(b.kind, size);
+        weight = Arrays.copyOf(b.weight, size);
+        share = Arrays.copyOf(b.share, size);
+        minCount = Arrays.copyOf(b.minCount, size);
+        maxCount = Arrays.copyOf(b.maxCount, size);
+        count = Arrays.copyOf(b.count, size);
+        expected = Arrays.copyOf(b.expected, size);
+        conditionCount = Arrays.copyOf(b.conditionCount, size);
+        conditionSet = Arrays.copyOf(b.conditionSet, size);
+
+        tables = List.copyOf(b.tableIds);
+        items = b.items.values();
+        kinds = b.kinds.values();
+        conditionSets = b.conditionSets.values();
+
+        int tableCount = tables.size();
+        tableIds = new String[tableCount];
+        tableTypes = new String[tableCount];
+        tableNamespaces = new String[tableCount];
+        for (int t = 0; t < tableCount; t++) {
+            tableIds[t] = tables.get(t).toString();
+            tableTypes[t] = b.tableTypes.get(t);
+            tableNamespaces[t] = tables.get(t).getNamespace();
+        }
+        tableStructures = List.copyOf(b.tableStructures);
+    }
+
+    /**
+     * Build columns for a set of tables.
+     *
+     * @param structures Structures known to use a table
+     * @param expectations Expected yield per item of a table, as
+     *                     ExpectedValueEngine.TableExpectation.byItem()
+     */
+    static LootColumns build(Collection<LootTableStructure> corpus,
+                             Function<ResourceLocation, List<String>> structures,
+                             Function<LootTableStructure, Map<ResourceLocation, ItemExpectation>> expectations) {
+        Builder b = new Builder();
+        List<LootTableStructure> sorted = new ArrayList<>(corpus);
+        sorted.sort(Comparator.comparing(s -> s.id().toString()));
+        for (LootTableStructure structure : sorted) {
+            b.addTable(structure, structures.apply(structure.id()), expectations.apply(structure));
+        }
+        return new LootColumns(b);
+    }
+
+    static double mean(NumberProvider provider) {
+        return switch (provider) {
+            case NumberProvider.Constant c -> c.value();
+            case NumberProvider.Uniform u -> (u.min() + u.max()) / 2.0;
+            case NumberProvider.Binomial b -> b.n() * (double) b.p();
+        };
+    }
+
+    /**
+     * Interns values in insertion order; code 0 is reserved when requested.
+     */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        Dictionary(T reserved) {
+            if (reserved != null) {
+                code(reserved);
+            }
+        }
+
+        int code(T value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        List<T> values() {
+            return List.copyOf(values);
+        }
+    }
+
+    private static final class Builder {
+        int rows = 0;
+        int[] table = new int[256];
+        int[] pool = new int[256];
+        int[] entry = new int[256];
+        int[] item = new int[256];
+        int[] kind = new int[256];
+        int[] weight = new int[256];
+        double[] share = new double[256];
+        double[] minCount = new double[256];
+        double[] maxCount = new double[256];
+        double[] count = new double[256];
+        double[] expected = new double[256];
+        int[] conditionCount = new int[256];
+        int[] conditionSet = new int[256];
+
+        final List<ResourceLocation> tableIds = new ArrayList<>();
+        final List<String> tableTypes = new ArrayList<>();
+        final List<List<String>> tableStructures = new ArrayList<>();
+        final Dictionary<String> items = new Dictionary<>("");
+        final Dictionary<String> kinds = new Dictionary<>(null);
+        final Dictionary<List<String>> conditionSets = new Dictionary<>(List.of());
+
+        void addTable(LootTableStructure structure, List<String> structures,
+                      Map<ResourceLocation, ItemExpectation> expectations) {
+            int tableCode = tableIds.size();
+            tableIds.add(structure.id());
+            tableTypes.add(structure.type());
+            tableStructures.add(List.copyOf(structures));
+
+            for (int p = 0; p < structure.pools().size(); p++) {
+                LootPool lootPool = structure.pools().get(p);
+                int totalWeight = lootPool.getTotalWeight();
+
+                for (int e = 0; e < lootPool.entries().size(); e++) {
+                    LootEntry lootEntry = lootPool.entries().get(e);
+                    grow();
+
+                    LootFunction setCount = lootEntry.getSetCountFunction();
+                    NumberProvider countProvider = setCount != null
+                        ? setCount.getCountAsNumberProvider()
+                        : NumberProvider.constant(1);
+
+                    // Pool conditions apply to every entry in the pool
+                    SortedSet<String> conditions = new TreeSet<>();
+                    for (LootCondition condition : lootPool.conditions()) {
+                        conditions.add(condition.condition());
+                    }
+                    for (LootCondition condition : lootEntry.conditions()) {
+                        conditions.add(condition.condition());
+                    }
+
+                    ItemExpectation itemExpectation = lootEntry.getItemId().map(expectations::get).orElse(null);
+
+                    int row = rows++;
+                    table[row] = tableCode;
+                    pool[row] = p + 1;
+                    entry[row] = e + 1;
+                    item[row] = items.code(lootEntry.getItemId().map(ResourceLocation::toString).orElse(""));
+                    kind[row] = kinds.code(lootEntry.type());
+                    weight[row] = lootEntry.weight();
+                    share[row] = totalWeight > 0 ? lootEntry.weight() / (double) totalWeight : 0;
+                    minCount[row] = countProvider.getMin();
+                    maxCount[row] = countProvider.getMax();
+                    count[row] = mean(countProvider);
+                    expected[row] = itemExpectation != null ? itemExpectation.expectedCount() : 0;
+                    conditionCount[row] = lootPool.conditions().size() + lootEntry.conditions().size();
+                    conditionSet[row] = conditionSets.code(List.copyOf(conditions));
+                }
+            }
+        }
+
+        private void grow() {
+            if (rows < table.length) {
+                return;
+            }
+            int capacity = table.length * 2;
+            table = Arrays.copyOf(table, capacity);
+            pool = Arrays.copyOf(pool, capacity);
+            entry = Arrays.copyOf(entry, capacity);
+            item = Arrays.copyOf(item, capacity);
+            kind = Arrays.copyOf(kind, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+            share = Arrays.copyOf(share, capacity);
+            minCount = Arrays.copyOf(minCount, capacity);
+            maxCount = Arrays.copyOf(maxCount, capacity);
+            count = Arrays.copyOf(count, capacity);
+            expected = Arrays.copyOf(expected, capacity);
+            conditionCount = Arrays.copyOf(conditionCount, capacity);
+            conditionSet = Arrays.copyOf(conditionSet, capacity);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package dev.isotope.search;
+
+import java.util.*;
+import java.util.function.DoublePredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+
+/**
+ * A parsed query over loot entries.
+ *
+ * Syntax: an optional target (entries, tables or structures, default
+ * entries), an optional "where", then comparisons combined with and, or,
+ * not and parentheses. Adjacent comparisons are joined with and.
+ *
+ *   tables type=chest namespace=minecraft expected>2 and share<5%
+ *   structures item=diamond
+ *   entries where (item~sword or item~axe) and conditions=0
+ *
+ * Fields: table, namespace, type, structure, pool, entry, item, kind,
+ * weight, share, count, mincount, maxcount, expected, conditions, condition.
+ * Operators: = and != on any field, ~ (contains) on text fields, and
+ * &lt; &lt;= &gt; &gt;= on numeric fields. IDs without a namespace are
+ * compared as minecraft IDs. Numbers may end in % (5% = 0.05). A value in
+ * double quotes is taken literally, even if it looks like a keyword,
+ * operator or parenthesis.
+ *
+ * A query compiles to a tree of column scans over LootColumns; each
+ * comparison produces a bit set of matching rows.
+ */
+public final class LootQuery {
+
+    /**
+     * What a query lists.
+     */
+    public enum Target {
+        /** Every matching entry */
+        ENTRIES,
+        /** Tables with at least one matching entry */
+        TABLES,
+        /** Structures using a table with at least one matching entry */
+        STRUCTURES
+    }
+
+    private enum Field {
+        TABLE("table", false),
+        NAMESPACE("namespace", false),
+        TYPE("type", false),
+        STRUCTURE("structure", false),
+        POOL("pool", true),
+        ENTRY("entry", true),
+        ITEM("item", false),
+        KIND("kind", false),
+        WEIGHT("weight", true),
+        SHARE("share", true),
+        COUNT("count", true),
+        MIN_COUNT("mincount", true),
+        MAX_COUNT("maxcount", true),
+        EXPECTED("expected", true),
+        CONDITIONS("conditions", true),
+        CONDITION("condition", false);
+
+        final String key;
+        final boolean numeric;
+
+        Field(String key, boolean numeric) {
+            this.key = key;
+            this.numeric = numeric;
+        }
+
+        static Field byKey(String key) {
+            String lower = key.toLowerCase(Locale.ROOT);
+            if (lower.equals("ns")) return NAMESPACE;
+            for (Field field : values()) {
+                if (field.key.equals(lower)) return field;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rows matching part of a query.
+     */
+    @FunctionalInterface
+    interface Filter {
+        BitSet evaluate(LootColumns columns);
+    }
+
+    private static final String OPERATOR_CHARS = "<>=!~";
+
+    private final String text;
+    private final Target target;
+    private final Filter filter;
+
+    private LootQuery(String text, Target target, Filter filter) {
+        this.text = text;
+        this.target = target;
+        this.filter = filter;
+    }
+
+    /**
+     * Check whether text is meant as a query rather than a plain search,
+     * i.e. it contains a comparison.
+     */
+    public static boolean isQuery(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if ("<>=~".indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a query.
+     *
+     * @throws IllegalArgumentException describing the first syntax error
+     */
+    public static LootQuery parse(String text) {
+        return new Parser(text).parse();
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public Target target() {
+        return target;
+    }
+
+    /**
+     * Rows of the columns matching this query.
+     */
+    BitSet evaluate(LootColumns columns) {
+        return filter.evaluate(columns);
+    }
+
+    // ===== Comparisons =====
+
+    private static Filter compare(Field field, String op, String value) {
+        if (field.numeric) {
+            if (op.equals("~")) {
+                throw new IllegalArgumentException("'~' needs a text field, " + field.key + " is numeric");
+            }
+            double number = parseNumber(field, value);
+            DoublePredicate test = switch (op) {
+                case "=" -> v -> v == number;
+                case "!=" -> v -> v != number;
+                case "<" -> v -> v < number;
+                case "<=" -> v -> v <= number;
+                case ">" -> v -> v > number;
+                case ">=" -> v -> v >= number;
+                default -> throw new IllegalArgumentException("Unknown operator " + op);
+            };
+            return columns -> scanNumeric(columns, numericColumn(columns, field), test);
+        }
+
+        if (!op.equals("=") && !op.equals("!=") && !op.equals("~")) {
+            throw new IllegalArgumentException("'" + op + "' needs a numeric field, " + field.key + " is text");
+        }
+        Predicate<String> test = textTest(field, op.equals("~"), value);
+        boolean negate = op.equals("!=");
+        return columns -> scanText(columns, field, test, negate);
+    }
+
+    private static double parseNumber(Field field, String value) {
+        try {
+            if (value.endsWith("%")) {
+                return Double.parseDouble(value.substring(0, value.length() - 1)) / 100.0;
+            }
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field.key + " needs a number, got '" + value + "'");
+        }
+    }
+
+    private static Predicate<String> textTest(Field field, boolean contains, String value) {
+        String needle = value.toLowerCase(Locale.ROOT);
+        if (contains) {
+            return s -> s.toLowerCase(Locale.ROOT).contains(needle);
+        }
+        boolean id = field != Field.NAMESPACE;
+        String expected = id && needle.indexOf(':') < 0 ? "minecraft:" + needle : needle;
+        return s -> s.equalsIgnoreCase(expected);
+    }
+
+    private static IntToDoubleFunction numericColumn(LootColumns c, Field field) {
+        return switch (field) {
+            case POOL -> row -> c.pool[row];
+            case ENTRY -> row -> c.entry[row];
+            case WEIGHT -> row -> c.weight[row];
+            case SHARE -> row -> c.share[row];
+            case COUNT -> row -> c.count[row];
+            case MIN_COUNT -> row -> c.minCount[row];
+            case MAX_COUNT -> row -> c.maxCount[row];
+            case EXPECTED -> row -> c.expected[row];
+            case CONDITIONS -> row -> c.conditionCount[row];
+            default -> throw new IllegalStateException(field + " is not numeric");
+        };
+    }
+
+    private static BitSet scanNumeric(LootColumns c, IntToDoubleFunction column, DoublePredicate test) {
+        BitSet rows = new BitSet(c.size);
+        for (int row = 0; row < c.size; row++) {
+            if (test.test(column.applyAsDouble(row))) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Decide the comparison once per distinct value (per table for table
+     * fields, per dictionary entry for row fields), then map rows through
+     * their codes. Multi-valued fields match if any value matches; != if none does.
+     */
+    private static BitSet scanText(LootColumns c, Field field, Predicate<String> test, boolean negate) {
+        boolean[] matches;
+        int[] codes;
+        switch (field) {
+            case TABLE, NAMESPACE, TYPE, STRUCTURE -> {
+                matches = new boolean[c.tableIds.length];
+                for (int t = 0; t < matches.length; t++) {
+                    matches[t] = switch (field) {
+                        case TABLE -> test.test(c.tableIds[t]);
+                        case NAMESPACE -> test.test(c.tableNamespaces[t]);
+                        case TYPE -> test.test(c.tableTypes[t]);
+                        default -> c.tableStructures.get(t).stream().anyMatch(test);
+                    };
+                }
+                codes = c.table;
+            }
+            case ITEM -> {
+                matches = new boolean[c.items.size()];
+                for (int code = 1; code < matches.length; code++) {
+                    matches[code] = test.test(c.items.get(code));
+                }
+                codes = c.item;
+            }
+            case KIND -> {
+                matches = new boolean[c.kinds.size()];
+                for (int code = 0; code < matches.length; code++) {
+                    matches[code] = test.test(c.kinds.get(code));
+                }
+                codes = c.kind;
+            }
+            case CONDITION -> {
+                matches = new boolean[c.conditionSets.size()];
+                for (int code = 0; code < matches.length; code++) {
+                    matches[code] = c.conditionSets.get(code).stream().anyMatch(test);
+                }
+                codes = c.conditionSet;
+            }
+            default -> throw new IllegalStateException(field + " is not text");
+        }
+
+        BitSet rows = new BitSet(c.size);
+        for (int row = 0; row < c.size; row++) {
+            if (matches[codes[row]] != negate) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    // ===== Parsing =====
+
+    /**
+     * A query token. Quoted text is always a value, never a keyword,
+     * operator or parenthesis.
+     */
+    private record Token(Kind kind, String text) {
+        enum Kind { WORD, QUOTED, OPERATOR, PAREN }
+
+        boolean is(Kind kind, String text) {
+            return this.kind == kind && this.text.equalsIgnoreCase(text);
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.QUOTED ? '"' + text + '"' : text;
+        }
+    }
+
+    private static final class Parser {
+        private final String text;
+        private final List<Token> tokens = new ArrayList<>();
+        private int pos = 0;
+
+        Parser(String text) {
+            this.text = text;
+            tokenize();
+        }
+
+        LootQuery parse() {
+            Target target = Target.ENTRIES;
+            if (pos < tokens.size() && tokens.get(pos).kind() == Token.Kind.WORD) {
+                switch (tokens.get(pos).text().toLowerCase(Locale.ROOT)) {
+                    case "entries" -> { target = Target.ENTRIES; pos++; }
+                    case "tables" -> { target = Target.TABLES; pos++; }
+                    case "structures" -> { target = Target.STRUCTURES; pos++; }
+                    default -> {}
+                }
+            }
+            if (isKeyword("where")) {
+                pos++;
+            }
+
+            Filter filter;
+            if (pos >= tokens.size()) {
+                filter = columns -> {
+                    BitSet all = new BitSet(columns.size);
+                    all.set(0, columns.size);
+                    return all;
+                };
+            } else {
+                filter = parseOr();
+            }
+            if (pos < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(pos) + "'");
+            }
+            return new LootQuery(text, target, filter);
+        }
+
+        private Filter parseOr() {
+            Filter left = parseAnd();
+            while (isKeyword("or")) {
+                pos++;
+                Filter l = left;
+                Filter r = parseAnd();
+                left = columns -> {
+                    BitSet rows = l.evaluate(columns);
+                    rows.or(r.evaluate(columns));
+                    return rows;
+                };
+            }
+            return left;
+        }
+
+        private Filter parseAnd() {
+            Filter left = parseUnary();
+            while (pos < tokens.size() && !isKeyword("or") && !isParen(")")) {
+                if (isKeyword("and")) {
+                    pos++;
+                }
+                Filter l = left;
+                Filter r = parseUnary();
+                left = columns -> {
+                    BitSet rows = l.evaluate(columns);
+                    if (!rows.isEmpty()) {
+                        rows.and(r.evaluate(columns));
+                    }
+                    return rows;
+                };
+            }
+            return left;
+        }
+
+        private Filter parseUnary() {
+            if (pos >= tokens.size()) {
+                throw new IllegalArgumentException("Query ends early");
+            }
+            if (isKeyword("not")) {
+                pos++;
+                Filter inner = parseUnary();
+                return columns -> {
+                    BitSet rows = inner.evaluate(columns);
+                    rows.flip(0, columns.size);
+                    return rows;
+                };
+            }
+            if (isParen("(")) {
+                pos++;
+                Filter inner = parseOr();
+                if (!isParen(")")) {
+                    throw new IllegalArgumentException("Missing ')'");
+                }
+                pos++;
+                return inner;
+            }
+            return parseComparison();
+        }
+
+        private Filter parseComparison() {
+            Token name = tokens.get(pos++);
+            Field field = name.kind() == Token.Kind.WORD ? Field.byKey(name.text()) : null;
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'");
+            }
+            if (pos >= tokens.size() || tokens.get(pos).kind() != Token.Kind.OPERATOR) {
+                throw new IllegalArgumentException("Expected an operator after " + field.key);
+            }
+            String op = tokens.get(pos++).text();
+            if (pos >= tokens.size() || !isValue(tokens.get(pos))) {
+                throw new IllegalArgumentException("Expected a value after " + field.key + op);
+            }
+            Token value = tokens.get(pos++);
+            if (value.text().isEmpty()) {
+                throw new IllegalArgumentException("Empty value after " + field.key + op);
+            }
+            return compare(field, op, value.text());
+        }
+
+        private boolean isKeyword(String keyword) {
+            return pos < tokens.size() && tokens.get(pos).is(Token.Kind.WORD, keyword);
+        }
+
+        private boolean isParen(String paren) {
+            return pos < tokens.size() && tokens.get(pos).is(Token.Kind.PAREN, paren);
+        }
+
+        private static boolean isValue(Token token) {
+            return token.kind() == Token.Kind.WORD || token.kind() == Token.Kind.QUOTED;
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(new Token(Token.Kind.PAREN, String.valueOf(c)));
+                    i++;
+                } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                    int start = i++;
+                    if (i < text.length() && text.charAt(i) == '=' && c != '~' && c != '=') {
+                        i++;
+                    }
+                    String op = text.substring(start, i);
+                    if (op.equals("!")) {
+                        throw new IllegalArgumentException("Unknown operator '!', did you mean '!='?");
+                    }
+                    tokens.add(new Token(Token.Kind.OPERATOR, op));
+                } else if (c == '"') {
+                    int end = text.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated quote");
+                    }
+                    tokens.add(new Token(Token.Kind.QUOTED, text.substring(i + 1, end)));
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < text.length()) {
+                        char d = text.charAt(i);
+                        if (Character.isWhitespace(d) || d == '(' || d == ')' || d == '"'
+                                || OPERATOR_CHARS.indexOf(d) >= 0) {
+                            break;
+                        }
+                        i++;
+                    }
+                    tokens.add(new Token(Token.Kind.WORD, text.substring(start, i)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package dev.isotope.search;
+
+import dev.isotope.Isotope;
+import dev.isotope.analysis.ExpectedValueEngine;
+import dev.isotope.data.StructureLootLink;
+import dev.isotope.data.loot.LootTableStructure;
+import dev.isotope.editing.LootEditManager;
+import dev.isotope.observation.ObservationSession;
+import dev.isotope.registry.StructureLootLinker;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.*;
+
+/**
+ * Runs LootQuery over the parsed loot tables.
+ *
+ * Each view gets its own LootColumns, built on the first query and reused
+ * until the tables, their edits, or the structure links change. Structures
+ * come from the last completed observation session and from the
+ * structure-loot links (which is what a loaded save restores).
+ */
+public final class LootQueryEngine {
+
+    private static final LootQueryEngine INSTANCE = new LootQueryEngine();
+
+    private final Map<SearchIndex.View, LootColumns> columns = new EnumMap<>(SearchIndex.View.class);
+    private final Map<SearchIndex.View, Long> builtFor = new EnumMap<>(SearchIndex.View.class);
+
+    private LootQueryEngine() {}
+
+    public static LootQueryEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Parse and run a query.
+     *
+     * @throws IllegalArgumentException if the query does not parse
+     */
+    public List<SearchHit> search(String text, SearchIndex.View view) {
+        return run(LootQuery.parse(text), view);
+    }
+
+    /**
+     * Run a query. Entry queries give one hit per entry, table queries one
+     * hit per table, and structure queries one hit per structure and table.
+     */
+    public synchronized List<SearchHit> run(LootQuery query, SearchIndex.View view) {
+        LootColumns c = getColumns(view);
+        BitSet rows = query.evaluate(c);
+
+        List<SearchHit> hits = new ArrayList<>();
+        switch (query.target()) {
+            case ENTRIES -> {
+                for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                    hits.add(new SearchHit(c.tables.get(c.table[row]), c.pool[row] - 1, c.entry[row] - 1,
+                        describe(c, row)));
+                }
+            }
+            case TABLES -> {
+                int[] matched = matchedPerTable(c, rows);
+                for (int t = 0; t < matched.length; t++) {
+                    if (matched[t] > 0) {
+                        hits.add(new SearchHit(c.tables.get(t), -1, -1,
+                            matched[t] + " matching entries, " + stripMinecraft(c.tableTypes[t])));
+                    }
+                }
+            }
+            case STRUCTURES -> {
+                int[] matched = matchedPerTable(c, rows);
+                Map<String, List<Integer>> byStructure = new TreeMap<>();
+                for (int t = 0; t < matched.length; t++) {
+                    if (matched[t] > 0) {
+                        for (String structure : c.tableStructures.get(t)) {
+                            byStructure.computeIfAbsent(structure, k -> new ArrayList<>()).add(t);
+                        }
+                    }
+                }
+                byStructure.forEach((structure, tables) -> {
+                    for (int t : tables) {
+                        hits.add(new SearchHit(c.tables.get(t), -1, -1,
+                            "Structure " + structure + ", " + matched[t] + " matching entries"));
+                    }
+                });
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Drop the columns; they are rebuilt on the next query.
+     */
+    public synchronized void invalidate() {
+        columns.clear();
+        builtFor.clear();
+    }
+
+    private LootColumns getColumns(SearchIndex.View view) {
+        LootEditManager manager = LootEditManager.getInstance();
+        Collection<LootTableStructure> originals = manager.getCachedOriginalStructures();
+
+        // Any edit, undo or newly cached table raises the global edit version
+        Map<ResourceLocation, List<String>> structures = structuresByTable();
+        long state = Objects.hash(originals.size(), manager.getGlobalEditVersion(), structures);
+
+        LootColumns cached = columns.get(view);
+        if (cached != null && builtFor.get(view) == state) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        List<LootTableStructure> corpus = new ArrayList<>(originals.size());
+        for (LootTableStructure original : originals) {
+            if (view == SearchIndex.View.EDITED && manager.hasEdits(original.id())) {
+                corpus.add(manager.getEditedStructure(original.id()).orElse(original));
+            } else {
+                corpus.add(original);
+            }
+        }
+
+        LootColumns built = LootColumns.build(corpus, id -> structures.getOrDefault(id, List.of()),
+            structure -> expectations(structure, view));
+        columns.put(view, built);
+        builtFor.put(view, state);
+        Isotope.LOGGER.debug("Loot query columns built for {} view: {} entries in {} tables, {}ms",
+            view, built.size, built.tables.size(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Expected yield per item of a table in a view. ExpectedValueEngine
+     * caches the edited tables, so an edited table in the original view is
+     * evaluated from its original structure instead.
+     */
+    private static Map<ResourceLocation, ExpectedValueEngine.ItemExpectation> expectations(
+            LootTableStructure structure, SearchIndex.View view) {
+        ExpectedValueEngine engine = ExpectedValueEngine.getInstance();
+        if (view == SearchIndex.View.ORIGINAL && LootEditManager.getInstance().hasEdits(structure.id())) {
+            return engine.evaluate(structure).byItem();
+        }
+        return engine.get(structure.id())
+            .map(ExpectedValueEngine.TableExpectation::byItem)
+            .orElse(Map.of());
+    }
+
+    /**
+     * Structures using each loot table, sorted, from the last completed
+     * observation session and the structure-loot links.
+     */
+    private static Map<ResourceLocation, List<String>> structuresByTable() {
+        Map<ResourceLocation, Set<String>> byTable = new HashMap<>();
+        // A snapshot: the running session's statistics are written on the observation thread
+        ObservationSession.getInstance().getObservedLootTables().forEach((structureId, tables) -> {
+            for (ResourceLocation tableId : tables) {
+                byTable.computeIfAbsent(tableId, k -> new TreeSet<>()).add(structureId.toString());
+            }
+        });
+        for (StructureLootLink link : StructureLootLinker.getInstance().getAllLinks()) {
+            byTable.computeIfAbsent(link.lootTableId(), k -> new TreeSet<>()).add(link.structureId().toString());
+        }
+
+        Map<ResourceLocation, List<String>> result = new HashMap<>();
+        byTable.forEach((tableId, structures) -> result.put(tableId, List.copyOf(structures)));
+        return result;
+    }
+
+    private static int[] matchedPerTable(LootColumns c, BitSet rows) {
+        int[] matched = new int[c.tables.size()];
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            matched[c.table[row]]++;
+        }
+        return matched;
+    }
+
+    private static String describe(LootColumns c, int row) {
+        String item = c.items.get(c.item[row]);
+        String label = item.isEmpty() ? stripMinecraft(c.kinds.get(c.kind[row])) : item.substring(item.indexOf(':') + 1);
+        String counts = c.minCount[row] == c.maxCount[row]
+            ? formatCount(c.minCount[row])
+            : formatCount(c.minCount[row]) + "-" + formatCount(c.maxCount[row]);
+        return String.format("Pool %d, Entry %d: %s (W:%d, %.1f%%, x%s)",
+            c.pool[row], c.entry[row], label, c.weight[row], c.share[row] * 100, counts);
+    }
+
+    private static String formatCount(double count) {
+        return count == Math.rint(count) ? String.valueOf((long) count) : String.format("%.1f", count);
+    }
+
+    private static String stripMinecraft(String id) {
+        return id.startsWith("minecraft:") ? id.substring("minecraft:".length()) : id;
+    }
+}
@@ -5,27 +5,95 @@ import dev.isotope.data.loot.LootEntry;
 import dev.isotope.data.loot.LootPool;
 import dev.isotope.data.loot.LootTableStructure;
 import dev.isotope.editing.LootEditManager;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 /**
  * Search index for finding items across all loot tables.
+ *
+ * Item IDs, item display names and table IDs are indexed in a TrigramIndex,
+ * so a query looks up posting lists instead of testing every item. Results
+ * are ranked by match quality: exact, prefix, word prefix, substring, then
+ * fuzzy matches by edit distance.
+ *
+ * Hits are kept in two layers. The original layer holds every table as
+ * parsed or imported. The edited layer only holds tables with edits and
+ * overrides the original layer in the EDITED view. The index listens to
+ * LootEditManager and re-indexes a table's edited layer whenever its edit
+ * version changes, so only the affected table is touched per edit.
+ *
+ * Tables are indexed from the pre-parse workers while the UI may already be
+ * searching, so all access is synchronized. The UI searches through
+ * searchAsync, which runs on a dedicated search thread and can be cancelled
+ * when the query changes. Edits and tables cached from the client thread
+ * are indexed on the same thread, so the client never waits for the lock.
+ *
+ * Text containing a comparison (see LootQuery) is run as a query by
+ * LootQueryEngine instead of being looked up by name.
  */
 public final class SearchIndex {
 
     private static final SearchIndex INSTANCE = new SearchIndex();
 
-    // Inverted index: item ID -> list of hits
-    private final Map<ResourceLocation, List<SearchHit>> itemIndex = new HashMap<>();
-
-    // Forward index: table ID -> list of items
-    private final Map<ResourceLocation, Set<ResourceLocation>> tableItems = new HashMap<>();
+    /**
+     * Receives search results on the search thread: first a partial list
+     * with the best hits, then the complete list.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+        void accept(List<SearchHit> hits, boolean complete);
+    }
 
-    // All indexed tables
-    private final Set<ResourceLocation> indexedTables = new HashSet<>();
+    /**
+     * Which version of the loot tables to search.
+     */
+    public enum View {
+        /** Tables as parsed or imported, ignoring edits */
+        ORIGINAL,
+        /** Tables with all edits applied */
+        EDITED
+    }
 
-    private SearchIndex() {}
+    // Tables as parsed or imported
+    private final Layer original = new Layer();
+
+    // Edited tables only, overriding the original layer in the EDITED view
+    private final Layer edited = new Layer();
+
+    // Edit version each edited table was indexed at
+    private final Map<ResourceLocation, Long> editedVersions = new HashMap<>();
+
+    // Searchable text: documents are items and tables
+    private final TrigramIndex textIndex = new TrigramIndex();
+    private final List<ResourceLocation> docIds = new ArrayList<>();
+    private final List<String> docNames = new ArrayList<>();
+    private final List<Boolean> docIsTable = new ArrayList<>();
+    private final Map<ResourceLocation, Integer> itemDocs = new HashMap<>();
+    private final Map<ResourceLocation, Integer> tableDocs = new HashMap<>();
+
+    // Item docs whose display name is not indexed yet (names are resolved on search)
+    private final List<Integer> unnamedItemDocs = new ArrayList<>();
+
+    // One thread: a newer query queues behind the current one, which is cancelled
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Isotope-Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SearchIndex() {
+        // Edit listeners run on the client thread; re-indexing is queued on the
+        // search thread so an edit never waits for a running search
+        LootEditManager.getInstance().addListener(() -> searchExecutor.execute(this::syncEdits));
+    }
 
     public static SearchIndex getInstance() {
         return INSTANCE;
@@ -34,100 +102,289 @@ public final class SearchIndex {
     /**
      * Rebuild the entire index from cached loot table structures.
      */
-    public void rebuild() {
-        itemIndex.clear();
-        tableItems.clear();
-        indexedTables.clear();
+    public synchronized void rebuild() {
+        clear();
 
         LootEditManager manager = LootEditManager.getInstance();
-        int tableCount = 0;
-        int entryCount = 0;
-
-        // Index all cached original structures
-        for (var entry : manager.getAllEdits().entrySet()) {
-            // Skip - we want to index originals, not edits
+        for (LootTableStructure structure : manager.getCachedOriginalStructures()) {
+            indexTable(structure);
         }
+        syncEdits();
 
-        // We need to get all cached original structures
-        // Since there's no direct accessor, we'll index when search is performed
-        // For now, build index on-demand during search
-
-        Isotope.LOGGER.debug("Search index rebuilt: {} tables, {} entries", tableCount, entryCount);
+        Isotope.LOGGER.debug("Search index rebuilt: {}", getStats());
     }
 
     /**
-     * Index a single loot table structure.
+     * Index a single loot table structure as its original version.
+     * If the table has edits, its edited version is re-indexed too.
      */
-    public void indexTable(LootTableStructure structure) {
+    public synchronized void indexTable(LootTableStructure structure) {
         ResourceLocation tableId = structure.id();
-        indexedTables.add(tableId);
-        Set<ResourceLocation> items = new HashSet<>();
+        original.put(structure);
 
-        for (int poolIdx = 0; poolIdx < structure.pools().size(); poolIdx++) {
-            LootPool pool = structure.pools().get(poolIdx);
-            for (int entryIdx = 0; entryIdx < pool.entries().size(); entryIdx++) {
-                LootEntry entry = pool.entries().get(entryIdx);
+        if (!tableDocs.containsKey(tableId)) {
+            int doc = addDoc(tableId, true);
+            tableDocs.put(tableId, doc);
+            textIndex.add(docNames.get(doc), doc);
+        }
 
-                if (entry.name().isPresent()) {
-                    ResourceLocation itemId = entry.name().get();
-                    items.add(itemId);
+        // The edited version derives from the original, so it is stale now
+        if (editedVersions.remove(tableId) != null || LootEditManager.getInstance().hasEdits(tableId)) {
+            reindexEdited(tableId);
+        }
+    }
 
-                    // Build context string
-                    String context = String.format("Pool %d, Entry %d: %s (W:%d)",
-                        poolIdx + 1, entryIdx + 1, itemId.getPath(), entry.weight());
+    /**
+     * Index a table on the search thread, for callers that may be on the
+     * client thread. Searches started afterwards see the table.
+     */
+    public void indexTableAsync(LootTableStructure structure) {
+        searchExecutor.execute(() -> indexTable(structure));
+    }
 
-                    SearchHit hit = new SearchHit(tableId, poolIdx, entryIdx, context);
+    /**
+     * Bring the edited layer up to date with LootEditManager. Only tables
+     * whose edit version differs from the indexed one are re-indexed.
+     */
+    public synchronized void syncEdits() {
+        LootEditManager manager = LootEditManager.getInstance();
+        Set<ResourceLocation> tables = new HashSet<>(manager.getEditedTables());
+        tables.addAll(editedVersions.keySet());
 
-                    itemIndex.computeIfAbsent(itemId, k -> new ArrayList<>()).add(hit);
-                }
+        for (ResourceLocation tableId : tables) {
+            Long indexed = editedVersions.get(tableId);
+            if (indexed == null || indexed != manager.getEditVersion(tableId)) {
+                reindexEdited(tableId);
             }
         }
+    }
 
-        tableItems.put(tableId, items);
+    private void reindexEdited(ResourceLocation tableId) {
+        LootEditManager manager = LootEditManager.getInstance();
+        long version = manager.getEditVersion(tableId);
+
+        edited.remove(tableId);
+        editedVersions.remove(tableId);
+        if (!manager.hasEdits(tableId)) {
+            return;
+        }
+
+        Optional<LootTableStructure> structure = manager.getEditedStructure(tableId);
+        if (structure.isPresent()) {
+            edited.put(structure.get());
+            editedVersions.put(tableId, version);
+        }
+    }
+
+    private int addDoc(ResourceLocation id, boolean table) {
+        docIds.add(id);
+        docNames.add(id.toString());
+        docIsTable.add(table);
+        return docIds.size() - 1;
+    }
+
+    private void ensureItemDoc(ResourceLocation itemId) {
+        if (!itemDocs.containsKey(itemId)) {
+            int doc = addDoc(itemId, false);
+            itemDocs.put(itemId, doc);
+            textIndex.add(docNames.get(doc), doc);
+            unnamedItemDocs.add(doc);
+        }
     }
 
     /**
-     * Search for items or tables matching the query.
+     * Index display names of items added since the last search.
+     */
+    private void indexPendingNames() {
+        for (int doc : unnamedItemDocs) {
+            BuiltInRegistries.ITEM.getOptional(docIds.get(doc)).ifPresent(item ->
+                textIndex.add(new ItemStack(item).getHoverName().getString(), doc));
+        }
+        unnamedItemDocs.clear();
+    }
+
+    /**
+     * Search the edited view for items or tables matching the query.
      */
     public List<SearchHit> search(String query) {
+        return search(query, View.EDITED);
+    }
+
+    /**
+     * Search for items or tables matching the query, best matches first.
+     * Item matches expand to every entry holding the item; table matches
+     * give one hit for the table itself (pool and entry -1).
+     *
+     * @throws IllegalArgumentException if the query is a LootQuery that does not parse
+     */
+    public synchronized List<SearchHit> search(String query, View view) {
+        List<SearchHit> results = collect(query, view, hit -> true, 0, null, () -> false);
+        return results != null ? results : List.of();
+    }
+
+    /**
+     * Search on the search thread without blocking the caller.
+     *
+     * Only hits passing the filter are kept. Once firstBatch hits are found
+     * they are passed to the consumer while the rest are collected, then the
+     * complete list follows. Cancelling the returned future stops the search;
+     * a query cancelled before it starts never runs. A LootQuery that does
+     * not parse completes the future with an IllegalArgumentException.
+     */
+    public CompletableFuture<List<SearchHit>> searchAsync(String query, View view, Predicate<SearchHit> filter,
+                                                          int firstBatch, ResultConsumer consumer) {
+        CompletableFuture<List<SearchHit>> future = new CompletableFuture<>();
+        searchExecutor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                List<SearchHit> results;
+                synchronized (this) {
+                    results = collect(query, view, filter, firstBatch, consumer, future::isDone);
+                }
+                if (results != null) {
+                    future.complete(results);
+                }
+            } catch (IllegalArgumentException e) {
+                // Malformed query, reported to the caller rather than logged
+                future.completeExceptionally(e);
+            } catch (Exception e) {
+                Isotope.LOGGER.error("Search failed for '{}': {}", query, e.getMessage());
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run a parsed LootQuery on the search thread without blocking the
+     * caller, for callers outside the UI such as commands. Building the
+     * query columns on a cold cache evaluates every table.
+     */
+    public CompletableFuture<List<SearchHit>> queryAsync(LootQuery query, View view) {
+        CompletableFuture<List<SearchHit>> future = new CompletableFuture<>();
+        searchExecutor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(LootQueryEngine.getInstance().run(query, view));
+            } catch (Exception e) {
+                Isotope.LOGGER.error("Loot query failed for '{}': {}", query.text(), e.getMessage());
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Rank matching documents and expand them into hits, best first.
+     * Returns null if cancelled.
+     */
+    private List<SearchHit> collect(String query, View view, Predicate<SearchHit> filter, int firstBatch,
+                                    ResultConsumer consumer, BooleanSupplier cancelled) {
         if (query == null || query.isBlank()) {
+            if (consumer != null) {
+                consumer.accept(List.of(), true);
+            }
             return List.of();
         }
 
-        String lowerQuery = query.toLowerCase().trim();
+        if (LootQuery.isQuery(query)) {
+            List<SearchHit> results = new ArrayList<>(LootQueryEngine.getInstance().search(query, view));
+            results.removeIf(filter.negate());
+            if (consumer != null) {
+                consumer.accept(List.copyOf(results), true);
+            }
+            return results;
+        }
+
+        indexPendingNames();
+
+        // Best score + 1 per document, 0 = no match
+        int[] scores = new int[docIds.size()];
+        List<Integer> docs = new ArrayList<>();
+        textIndex.search(query, (doc, score) -> {
+            if (scores[doc] == 0) {
+                docs.add(doc);
+                scores[doc] = score + 1;
+            } else {
+                scores[doc] = Math.min(scores[doc], score + 1);
+            }
+        });
+
+        docs.sort(Comparator.<Integer>comparingInt(doc -> scores[doc])
+            .thenComparingInt(doc -> docNames.get(doc).length())
+            .thenComparing(docNames::get));
+
         List<SearchHit> results = new ArrayList<>();
+        boolean sentFirstBatch = false;
+        for (int doc : docs) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
 
-        // Search by item ID
-        for (var entry : itemIndex.entrySet()) {
-            ResourceLocation itemId = entry.getKey();
-            if (itemId.toString().toLowerCase().contains(lowerQuery) ||
-                itemId.getPath().toLowerCase().contains(lowerQuery)) {
-                results.addAll(entry.getValue());
+            ResourceLocation id = docIds.get(doc);
+            if (docIsTable.get(doc)) {
+                int itemCount = getItemsInTable(id, view).size();
+                SearchHit hit = new SearchHit(id, -1, -1, "Loot table, " + itemCount + " items");
+                if (filter.test(hit)) {
+                    results.add(hit);
+                }
+            } else {
+                List<SearchHit> hits = getHits(id, view);
+                hits.removeIf(filter.negate());
+                hits.sort(Comparator.comparing((SearchHit h) -> h.table().toString())
+                    .thenComparingInt(SearchHit::pool)
+                    .thenComparingInt(SearchHit::entry));
+                results.addAll(hits);
             }
-        }
 
-        // Deduplicate and limit results
-        List<SearchHit> unique = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
-        for (SearchHit hit : results) {
-            String key = hit.table() + ":" + hit.pool() + ":" + hit.entry();
-            if (seen.add(key)) {
-                unique.add(hit);
+            if (consumer != null && !sentFirstBatch && firstBatch > 0 && results.size() >= firstBatch) {
+                consumer.accept(List.copyOf(results), false);
+                sentFirstBatch = true;
             }
         }
 
-        // Sort by table path
-        unique.sort(Comparator.comparing(h -> h.table().toString()));
+        if (consumer != null) {
+            consumer.accept(List.copyOf(results), true);
+        }
+        return results;
+    }
 
-        return unique;
+    /**
+     * Hits for an item in a view. In the EDITED view, edited tables
+     * replace their original hits.
+     */
+    private List<SearchHit> getHits(ResourceLocation itemId, View view) {
+        List<SearchHit> hits = new ArrayList<>();
+        if (view == View.ORIGINAL) {
+            hits.addAll(original.itemIndex.getOrDefault(itemId, List.of()));
+            return hits;
+        }
+
+        for (SearchHit hit : original.itemIndex.getOrDefault(itemId, List.of())) {
+            if (!edited.tableItems.containsKey(hit.table())) {
+                hits.add(hit);
+            }
+        }
+        hits.addAll(edited.itemIndex.getOrDefault(itemId, List.of()));
+        return hits;
     }
 
     /**
-     * Search for tables containing a specific item.
+     * Search the edited view for tables containing a specific item.
      */
     public List<ResourceLocation> findTablesWithItem(ResourceLocation itemId) {
-        List<SearchHit> hits = itemIndex.getOrDefault(itemId, List.of());
-        return hits.stream()
+        return findTablesWithItem(itemId, View.EDITED);
+    }
+
+    /**
+     * Search for tables containing a specific item.
+     */
+    public synchronized List<ResourceLocation> findTablesWithItem(ResourceLocation itemId, View view) {
+        return getHits(itemId, view).stream()
             .map(SearchHit::table)
             .distinct()
             .sorted(Comparator.comparing(ResourceLocation::toString))
@@ -135,34 +392,122 @@ public final class SearchIndex {
     }
 
     /**
-     * Get all items in a table.
+     * Get all items in a table, with edits applied.
      */
     public Set<ResourceLocation> getItemsInTable(ResourceLocation tableId) {
-        return tableItems.getOrDefault(tableId, Set.of());
+        return getItemsInTable(tableId, View.EDITED);
+    }
+
+    /**
+     * Get all items in a table.
+     */
+    public synchronized Set<ResourceLocation> getItemsInTable(ResourceLocation tableId, View view) {
+        if (view == View.EDITED) {
+            Set<ResourceLocation> items = edited.tableItems.get(tableId);
+            if (items != null) {
+                return items;
+            }
+        }
+        return original.tableItems.getOrDefault(tableId, Set.of());
     }
 
     /**
      * Check if a table is indexed.
      */
-    public boolean isIndexed(ResourceLocation tableId) {
-        return indexedTables.contains(tableId);
+    public synchronized boolean isIndexed(ResourceLocation tableId) {
+        return original.tableItems.containsKey(tableId);
     }
 
     /**
      * Get index statistics.
      */
-    public String getStats() {
-        int totalHits = itemIndex.values().stream().mapToInt(List::size).sum();
-        return String.format("%d tables, %d unique items, %d total hits",
-            indexedTables.size(), itemIndex.size(), totalHits);
+    public synchronized String getStats() {
+        int totalHits = original.itemIndex.values().stream().mapToInt(List::size).sum();
+        return String.format("%d tables, %d unique items, %d total hits, %d search keys, %d edited tables",
+            original.tableItems.size(), original.itemIndex.size(), totalHits, textIndex.size(),
+            edited.tableItems.size());
     }
 
     /**
      * Clear the index.
      */
-    public void clear() {
-        itemIndex.clear();
-        tableItems.clear();
-        indexedTables.clear();
+    public synchronized void clear() {
+        original.clear();
+        edited.clear();
+        editedVersions.clear();
+        textIndex.clear();
+        docIds.clear();
+        docNames.clear();
+        docIsTable.clear();
+        itemDocs.clear();
+        tableDocs.clear();
+        unnamedItemDocs.clear();
+    }
+
+    /**
+     * Inverted and forward index for one set of table versions.
+     */
+    private final class Layer {
+        // Inverted index: item ID -> list of hits
+        final Map<ResourceLocation, List<SearchHit>> itemIndex = new HashMap<>();
+
+        // Forward index: table ID -> set of items
+        final Map<ResourceLocation, Set<ResourceLocation>> tableItems = new HashMap<>();
+
+        /**
+         * Index a table, replacing any hits it had in this layer.
+         */
+        void put(LootTableStructure structure) {
+            ResourceLocation tableId = structure.id();
+            remove(tableId);
+            Set<ResourceLocation> items = new HashSet<>();
+
+            for (int poolIdx = 0; poolIdx < structure.pools().size(); poolIdx++) {
+                LootPool pool = structure.pools().get(poolIdx);
+                for (int entryIdx = 0; entryIdx < pool.entries().size(); entryIdx++) {
+                    LootEntry entry = pool.entries().get(entryIdx);
+
+                    if (entry.name().isPresent()) {
+                        ResourceLocation itemId = entry.name().get();
+                        items.add(itemId);
+
+                        // Build context string
+                        String context = String.format("Pool %d, Entry %d: %s (W:%d)",
+                            poolIdx + 1, entryIdx + 1, itemId.getPath(), entry.weight());
+
+                        SearchHit hit = new SearchHit(tableId, poolIdx, entryIdx, context);
+
+                        itemIndex.computeIfAbsent(itemId, k -> new ArrayList<>()).add(hit);
+                        ensureItemDoc(itemId);
+                    }
+                }
+            }
+
+            tableItems.put(tableId, items);
+        }
+
+        /**
+         * Remove a table's hits from this layer.
+         */
+        void remove(ResourceLocation tableId) {
+            Set<ResourceLocation> previous = tableItems.remove(tableId);
+            if (previous == null) {
+                return;
+            }
+            for (ResourceLocation itemId : previous) {
+                List<SearchHit> hits = itemIndex.get(itemId);
+                if (hits != null) {
+                    hits.removeIf(hit -> hit.table().equals(tableId));
+                    if (hits.isEmpty()) {
+                        itemIndex.remove(itemId);
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            itemIndex.clear();
+            tableItems.clear();
+        }
     }
 }
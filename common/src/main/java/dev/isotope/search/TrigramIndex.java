@@ -0,0 +1,390 @@
+package dev.isotope.search;
+
+import java.util.*;
+
+/**
+ * Trigram posting lists over short keys (IDs, names, paths) for substring,
+ * prefix and fuzzy lookup.
+ *
+ * Every key belongs to a document, and a document may have several keys.
+ * Besides the plain trigrams of each key, every word start (start of the key
+ * or after a separator) is indexed as a boundary gram, so one- and two-letter
+ * queries resolve to word prefixes without scanning.
+ *
+ * Queries of three or more characters intersect the posting lists of their
+ * trigrams; if that finds few documents, keys sharing enough trigrams are
+ * checked against a bounded edit distance to the closest substring.
+ */
+final class TrigramIndex {
+
+    // Match scores, lower is better
+    static final int SCORE_EXACT = 0;
+    static final int SCORE_PREFIX = 1;
+    static final int SCORE_WORD_PREFIX = 2;
+    static final int SCORE_SUBSTRING = 3;
+    static final int SCORE_FUZZY = 4; // + edit distance
+
+    // Fuzzy matching only runs when exact matching found fewer documents than this
+    private static final int FUZZY_THRESHOLD = 50;
+
+    // Most keys checked for edit distance per query, highest trigram overlap first
+    private static final int MAX_FUZZY_CANDIDATES = 2000;
+
+    // Never appears in normalized text, so boundary grams cannot collide with plain ones
+    private static final char BOUNDARY = '\u0001';
+
+    @FunctionalInterface
+    interface MatchConsumer {
+        void accept(int doc, int score);
+    }
+
+    private final List<String> keys = new ArrayList<>();
+    private final IntList keyDocs = new IntList();
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    // Per-query trigram hit counts for fuzzy matching, reused between queries
+    private int[] overlap = new int[0];
+
+    /**
+     * Lowercase and trim text the way keys and queries are compared.
+     */
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static boolean isSeparator(char c) {
+        return c == ':' || c == '/' || c == '_' || c == ' ' || c == '.' || c == '-';
+    }
+
+    /**
+     * Add a key for a document.
+     */
+    void add(String text, int doc) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        int keyId = keys.size();
+        keys.add(key);
+        keyDocs.add(doc);
+
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            grams.add(gram(key.charAt(i), key.charAt(i + 1), key.charAt(i + 2)));
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || isSeparator(key.charAt(i - 1))) {
+                grams.add(gram(BOUNDARY, key.charAt(i)));
+                if (i + 1 < key.length()) {
+                    grams.add(gram(BOUNDARY, key.charAt(i), key.charAt(i + 1)));
+                }
+            }
+        }
+
+        // Key IDs only grow, so every posting list stays sorted
+        for (Long g : grams) {
+            postings.computeIfAbsent(g, k -> new IntList()).add(keyId);
+        }
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    void clear() {
+        keys.clear();
+        keyDocs.clear();
+        postings.clear();
+        overlap = new int[0];
+    }
+
+    /**
+     * Report each matching key's document and score. A document is reported
+     * once per matching key; callers keep the best score.
+     */
+    void search(String query, MatchConsumer consumer) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return;
+        }
+
+        if (q.length() < 3) {
+            IntList candidates = q.length() == 1
+                ? postings.get(gram(BOUNDARY, q.charAt(0)))
+                : postings.get(gram(BOUNDARY, q.charAt(0), q.charAt(1)));
+            if (candidates != null) {
+                for (int i = 0; i < candidates.size; i++) {
+                    int keyId = candidates.data[i];
+                    consumer.accept(keyDocs.data[keyId], classify(keys.get(keyId), q));
+                }
+            }
+            return;
+        }
+
+        // Distinct trigrams of the query, rarest first
+        Set<Long> queryGrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            queryGrams.add(gram(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2)));
+        }
+        List<IntList> lists = new ArrayList<>(queryGrams.size());
+        for (Long g : queryGrams) {
+            lists.add(postings.get(g));
+        }
+
+        BitSet matchedDocs = new BitSet();
+        if (!lists.contains(null)) {
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            IntList candidates = lists.get(0);
+            for (int j = 1; j < lists.size() && candidates.size > 0; j++) {
+                candidates = candidates.intersect(lists.get(j));
+            }
+
+            for (int i = 0; i < candidates.size; i++) {
+                int keyId = candidates.data[i];
+                int score = classify(keys.get(keyId), q);
+                if (score >= 0) {
+                    consumer.accept(keyDocs.data[keyId], score);
+                    matchedDocs.set(keyDocs.data[keyId]);
+                }
+            }
+        }
+
+        if (q.length() >= 4 && matchedDocs.cardinality() < FUZZY_THRESHOLD) {
+            fuzzySearch(q, lists, matchedDocs, consumer);
+        }
+    }
+
+    /**
+     * Edit-distance matching for keys sharing enough trigrams with the query.
+     * By the q-gram lemma, a substring within k edits of the query shares at
+     * least (n - 3k) of the query's n trigrams. Candidates are verified in
+     * order of shared trigrams, so the likeliest matches are checked first
+     * and the work per query stays bounded.
+     */
+    private void fuzzySearch(String q, List<IntList> lists, BitSet matchedDocs, MatchConsumer consumer) {
+        int maxEdits = q.length() >= 10 ? 2 : 1;
+        int required = Math.max(1, lists.size() - 3 * maxEdits);
+        Pattern pattern = q.length() <= 64 ? new Pattern(q) : null;
+
+        if (overlap.length < keys.size()) {
+            overlap = new int[keys.size()];
+        }
+        IntList touched = new IntList();
+        for (IntList list : lists) {
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int keyId = list.data[i];
+                if (overlap[keyId]++ == 0) {
+                    touched.add(keyId);
+                }
+            }
+        }
+
+        // Bucket candidates by shared trigram count
+        IntList[] buckets = new IntList[lists.size() + 1];
+        for (int i = 0; i < touched.size; i++) {
+            int keyId = touched.data[i];
+            int shared = overlap[keyId];
+            overlap[keyId] = 0;
+            if (shared >= required && !matchedDocs.get(keyDocs.data[keyId])) {
+                if (buckets[shared] == null) {
+                    buckets[shared] = new IntList();
+                }
+                buckets[shared].add(keyId);
+            }
+        }
+
+        int budget = MAX_FUZZY_CANDIDATES;
+        int found = matchedDocs.cardinality();
+        for (int shared = buckets.length - 1; shared >= required && budget > 0 && found < FUZZY_THRESHOLD; shared--) {
+            IntList bucket = buckets[shared];
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = 0; i < bucket.size && budget > 0; i++, budget--) {
+                int keyId = bucket.data[i];
+                int distance = pattern != null
+                    ? pattern.substringDistance(keys.get(keyId), maxEdits)
+                    : substringDistance(q, keys.get(keyId), maxEdits);
+                if (distance > 0 && distance <= maxEdits) {
+                    consumer.accept(keyDocs.data[keyId], SCORE_FUZZY + distance);
+                    found++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Classify how a key contains the query, or -1 if it does not.
+     */
+    private static int classify(String key, String q) {
+        if (key.equals(q)) {
+            return SCORE_EXACT;
+        }
+        if (key.startsWith(q)) {
+            return SCORE_PREFIX;
+        }
+
+        int best = -1;
+        int from = 0;
+        int index;
+        while ((index = key.indexOf(q, from)) >= 0) {
+            if (isSeparator(key.charAt(index - 1))) {
+                return SCORE_WORD_PREFIX;
+            }
+            best = SCORE_SUBSTRING;
+            from = index + 1;
+        }
+        return best;
+    }
+
+    /**
+     * Smallest edit distance between the query and any substring of the text
+     * (Sellers' algorithm), or maxEdits + 1 once it cannot be within maxEdits.
+     */
+    private static int substringDistance(String q, String text, int maxEdits) {
+        int m = q.length();
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            prev[i] = i;
+        }
+
+        int best = prev[m];
+        for (int j = 1; j <= text.length(); j++) {
+            char c = text.charAt(j - 1);
+            curr[0] = 0; // A match may start anywhere in the text
+            for (int i = 1; i <= m; i++) {
+                int cost = q.charAt(i - 1) == c ? 0 : 1;
+                curr[i] = Math.min(Math.min(curr[i - 1] + 1, prev[i] + 1), prev[i - 1] + cost);
+            }
+            best = Math.min(best, curr[m]);
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    /**
+     * Query compiled for Myers' bit-parallel edit distance (queries up to 64 chars).
+     * Each text character costs a handful of word operations instead of a DP row.
+     */
+    private static final class Pattern {
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+        private final long lastBit;
+        private final int length;
+
+        Pattern(String q) {
+            length = q.length();
+            lastBit = 1L << (length - 1);
+            for (int i = 0; i < length; i++) {
+                char c = q.charAt(i);
+                if (c < 128) {
+                    asciiMasks[c] |= 1L << i;
+                } else {
+                    otherMasks.merge(c, 1L << i, (a, b) -> a | b);
+                }
+            }
+        }
+
+        private long mask(char c) {
+            return c < 128 ? asciiMasks[c] : otherMasks.getOrDefault(c, 0L);
+        }
+
+        int substringDistance(String text, int maxEdits) {
+            long pv = -1L;
+            long mv = 0L;
+            int score = length;
+            int best = score;
+            for (int j = 0; j < text.length(); j++) {
+                long eq = mask(text.charAt(j));
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & lastBit) != 0) {
+                    score++;
+                } else if ((mh & lastBit) != 0) {
+                    score--;
+                }
+                // No carry-in at the bottom: a match may start anywhere in the text
+                ph <<= 1;
+                mh <<= 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+                best = Math.min(best, score);
+            }
+            return Math.min(best, maxEdits + 1);
+        }
+    }
+
+    private static long gram(char a, char b) {
+        return ((long) a << 16) | b | (1L << 48);
+    }
+
+    private static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Growable int array; posting lists are append-only and sorted.
+     */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        /**
+         * Sorted intersection. Walks both lists when their sizes are close,
+         * otherwise binary-searches the longer one for each value of this one.
+         */
+        IntList intersect(IntList other) {
+            IntList result = new IntList();
+            if ((long) size * 16 >= other.size) {
+                int i = 0;
+                int j = 0;
+                while (i < size && j < other.size) {
+                    int a = data[i];
+                    int b = other.data[j];
+                    if (a == b) {
+                        result.add(a);
+                        i++;
+                        j++;
+                    } else if (a < b) {
+                        i++;
+                    } else {
+                        j++;
+                    }
+                }
+                return result;
+            }
+
+            int from = 0;
+            for (int i = 0; i < size && from < other.size; i++) {
+                int index = Arrays.binarySearch(other.data, from, other.size, data[i]);
+                if (index >= 0) {
+                    result.add(data[i]);
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return result;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
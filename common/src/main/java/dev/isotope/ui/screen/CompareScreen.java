@@ -1,7 +1,9 @@
 package dev.isotope.ui.screen;
 
+import dev.isotope.analysis.DropRateCache;
 import dev.isotope.analysis.DropRateCalculator;
 import dev.isotope.analysis.DropRateCalculator.DropRate;
+import dev.isotope.analysis.LootSimulator;
 import dev.isotope.data.loot.LootEntry;
 import dev.isotope.data.loot.LootPool;
 import dev.isotope.data.loot.LootTableStructure;
@@ -21,6 +23,7 @@ import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Side-by-side comparison of two loot tables.
@@ -45,6 +48,14 @@ public class CompareScreen extends Screen {
     @Nullable
     private LootTableStructure rightTable;
 
+    // Simulated per-chest results for each side
+    @Nullable
+    private CompletableFuture<LootSimulator.SimulationResult> leftSimulation;
+    @Nullable
+    private CompletableFuture<LootSimulator.SimulationResult> rightSimulation;
+    private Map<ResourceLocation, LootSimulator.ItemResult> leftSimulated = Map.of();
+    private Map<ResourceLocation, LootSimulator.ItemResult> rightSimulated = Map.of();
+
     // UI state
     private int scrollOffset = 0;
     private int maxScroll = 0;
@@ -189,9 +200,40 @@ public class CompareScreen extends Screen {
             rightTable = null;
         }
 
+        startSimulations();
         calculateMaxScroll();
     }
 
+    /**
+     * Simulate both tables in the background, replacing any running simulations.
+     */
+    private void startSimulations() {
+        if (leftSimulation != null) {
+            leftSimulation.cancel(false);
+        }
+        if (rightSimulation != null) {
+            rightSimulation.cancel(false);
+        }
+        leftSimulated = Map.of();
+        rightSimulated = Map.of();
+
+        leftSimulation = leftTable != null ? simulate(leftTable, true) : null;
+        rightSimulation = rightTable != null ? simulate(rightTable, false) : null;
+    }
+
+    private CompletableFuture<LootSimulator.SimulationResult> simulate(LootTableStructure table, boolean isLeft) {
+        CompletableFuture<LootSimulator.SimulationResult> future = LootSimulator.getInstance()
+            .simulateAsync(table, LootSimulator.DEFAULT_ROLLS, table.id().hashCode());
+        future.thenAccept(result -> minecraft.execute(() -> {
+            if (isLeft && leftSimulation == future) {
+                leftSimulated = result.byItem();
+            } else if (!isLeft && rightSimulation == future) {
+                rightSimulated = result.byItem();
+            }
+        }));
+        return future;
+    }
+
     private void calculateMaxScroll() {
         int leftHeight = calculateTableHeight(leftTable);
         int rightHeight = calculateTableHeight(rightTable);
@@ -306,12 +348,9 @@ public class CompareScreen extends Screen {
 
     private void renderTable(GuiGraphics graphics, LootTableStructure table, int x, int y, int panelWidth,
                              int mouseX, int mouseY, boolean isLeft) {
-        // Calculate drop rates for comparison
-        List<DropRate> rates = DropRateCalculator.calculate(table);
-        Map<ResourceLocation, DropRate> rateMap = new HashMap<>();
-        for (DropRate rate : rates) {
-            rateMap.put(rate.item(), rate);
-        }
+        // Precomputed drop rates for comparison
+        Map<ResourceLocation, DropRate> rateMap = DropRateCache.getInstance().get(table).byItem();
+        Map<ResourceLocation, LootSimulator.ItemResult> simulated = isLeft ? leftSimulated : rightSimulated;
 
         int currentY = y;
 
@@ -358,8 +397,8 @@ public class CompareScreen extends Screen {
 
                     // Entry name
                     String entryName = entry.name().map(ResourceLocation::getPath).orElse("???");
-                    if (font.width(entryName) > panelWidth - 100) {
-                        entryName = font.plainSubstrByWidth(entryName, panelWidth - 110) + "...";
+                    if (font.width(entryName) > panelWidth - 150) {
+                        entryName = font.plainSubstrByWidth(entryName, panelWidth - 160) + "...";
                     }
                     int nameColor = differs ? 0xFFFFAA00 : IsotopeColors.TEXT_SECONDARY;
                     graphics.drawString(font, entryName, x + 20, currentY + 5, nameColor, false);
@@ -369,6 +408,14 @@ public class CompareScreen extends Screen {
                     graphics.drawString(font, weightStr, x + panelWidth - 60, currentY + 5,
                         IsotopeColors.TEXT_MUTED, false);
 
+                    // Simulated chance to appear per chest
+                    LootSimulator.ItemResult sim = entry.name().map(simulated::get).orElse(null);
+                    if (sim != null) {
+                        String simStr = String.format("sim %.1f%%", sim.percentChance());
+                        graphics.drawString(font, simStr, x + panelWidth - 64 - font.width(simStr), currentY + 5,
+                            IsotopeColors.TEXT_MUTED, false);
+                    }
+
                     // Drop rate percentage
                     DropRate rate = entry.name().map(rateMap::get).orElse(null);
                     if (rate != null) {
@@ -510,6 +557,12 @@ public class CompareScreen extends Screen {
 
     @Override
     public void onClose() {
+        if (leftSimulation != null) {
+            leftSimulation.cancel(false);
+        }
+        if (rightSimulation != null) {
+            rightSimulation.cancel(false);
+        }
         if (minecraft != null) {
             minecraft.setScreen(parent);
         }
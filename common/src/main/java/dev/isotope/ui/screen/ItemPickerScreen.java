@@ -1,5 +1,6 @@
 package dev.isotope.ui.screen;
 
+import dev.isotope.search.ItemSearchIndex;
 import dev.isotope.ui.IsotopeColors;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -13,7 +14,6 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.Items;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -30,6 +30,7 @@ public class ItemPickerScreen extends Screen {
     private static final int ITEM_SIZE = 18;
     private static final int ITEM_PADDING = 2;
     private static final int CELL_SIZE = ITEM_SIZE + ITEM_PADDING;
+    private static final int MAX_RESULTS = 1000;
 
     private final Screen parent;
     private final Consumer<ResourceLocation> onItemSelected;
@@ -58,12 +59,8 @@ public class ItemPickerScreen extends Screen {
     }
 
     private void collectMods() {
-        Set<String> mods = new TreeSet<>();
-        for (var entry : BuiltInRegistries.ITEM.entrySet()) {
-            mods.add(entry.getKey().location().getNamespace());
-        }
         availableMods.add("All");
-        availableMods.addAll(mods);
+        availableMods.addAll(ItemSearchIndex.getInstance().getNamespaces());
     }
 
     @Override
@@ -109,35 +106,9 @@ public class ItemPickerScreen extends Screen {
     }
 
     private void filterItems() {
-        filteredItems.clear();
-        String search = searchBox != null ? searchBox.getValue().toLowerCase() : "";
-
-        for (var entry : BuiltInRegistries.ITEM.entrySet()) {
-            Item item = entry.getValue();
-            ResourceLocation id = entry.getKey().location();
-
-            // Skip air
-            if (item == Items.AIR) continue;
-
-            // Mod filter
-            if (!selectedMod.equals("All") && !id.getNamespace().equals(selectedMod)) {
-                continue;
-            }
-
-            // Search filter
-            if (!search.isEmpty()) {
-                String idStr = id.toString().toLowerCase();
-                String name = new ItemStack(item).getHoverName().getString().toLowerCase();
-                if (!idStr.contains(search) && !name.contains(search)) {
-                    continue;
-                }
-            }
-
-            filteredItems.add(item);
-
-            // Limit for performance
-            if (filteredItems.size() >= 1000) break;
-        }
+        String search = searchBox != null ? searchBox.getValue() : "";
+        String namespace = selectedMod.equals("All") ? null : selectedMod;
+        filteredItems = new ArrayList<>(ItemSearchIndex.getInstance().search(search, namespace, MAX_RESULTS));
 
         calculateMaxScroll();
     }
@@ -183,7 +154,7 @@ public class ItemPickerScreen extends Screen {
         graphics.fill(gridX, gridY, gridX + gridWidth, gridY + gridHeight, 0xFF252525);
 
         // Item count
-        String countText = filteredItems.size() + " items" + (filteredItems.size() >= 1000 ? "+" : "");
+        String countText = filteredItems.size() + " items" + (filteredItems.size() >= MAX_RESULTS ? "+" : "");
         graphics.drawString(font, countText, gridX, gridY - 10, IsotopeColors.TEXT_MUTED, false);
 
         // Render items with scissor
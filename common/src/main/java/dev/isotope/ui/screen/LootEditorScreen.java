@@ -21,6 +21,7 @@ import dev.isotope.ui.widget.LootTableBrowserWidget;
 import dev.isotope.ui.widget.LootTableEditPanel;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.Tooltip;
@@ -30,6 +31,8 @@ import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.glfw.GLFW;
 
+import java.util.concurrent.CompletableFuture;
+
 
 /**
  * Unified loot table editor screen.
@@ -81,6 +84,9 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
     private final LootEditManager.EditListener editListener = this::updateButtonStates;
     private final TabManager.TabChangeListener tabListener = this::onTabsChanged;
 
+    // Pre-parse the completion callback is registered on; init() runs again on resize
+    private CompletableFuture<LootEditManager.PreParseResult> watchedPreParse = null;
+
     public LootEditorScreen() {
         super(Component.literal("ISOTOPE"));
     }
@@ -184,6 +190,14 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
         LootEditManager.getInstance().addListener(editListener);
         tabManager.addListener(tabListener);
 
+        // Refresh the open table once a running pre-parse finishes
+        CompletableFuture<LootEditManager.PreParseResult> preParse = LootEditManager.getInstance().getPreParseFuture();
+        if (!preParse.isDone() && preParse != watchedPreParse) {
+            watchedPreParse = preParse;
+            preParse.thenAccept(result ->
+                Minecraft.getInstance().execute(() -> onLootTablesParsed(result)));
+        }
+
         // Tab bar (right side, under header)
         int tabBarX = LEFT_PANEL_WIDTH + PADDING * 2;
         int tabBarWidth = width - tabBarX - PADDING;
@@ -224,7 +238,10 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
 
         int bottomY = contentY + editPanelHeight;
 
-        // Drop rate panel
+        // Drop rate panel (replacing the one from a previous init)
+        if (dropRatePanel != null) {
+            dropRatePanel.close();
+        }
         int dropRateHeight = dropRatesVisible ? 180 : 0;
         dropRatePanel = new DropRatePanel(
             editX,
@@ -305,6 +322,14 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
         updateButtonStates();
     }
 
+    private void onLootTablesParsed(LootEditManager.PreParseResult result) {
+        if (Minecraft.getInstance().screen != this) {
+            return;
+        }
+        onTabsChanged();
+        IsotopeToast.info("Loot Tables", "Parsed " + result.parsed() + " tables in " + result.durationMillis() + " ms");
+    }
+
     /**
      * Get the currently selected (active tab's) table ID.
      */
@@ -490,6 +515,13 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
             graphics.drawString(font, editText, width - 180 - editWidth, 10, IsotopeColors.BADGE_MODIFIED, false);
         }
 
+        // Pre-parse progress
+        if (!LootEditManager.getInstance().isPreParseComplete()) {
+            int[] progress = LootEditManager.getInstance().getPreParseProgress();
+            graphics.drawString(font, "Parsing loot tables " + progress[0] + "/" + progress[1],
+                70, 10, IsotopeColors.TEXT_MUTED, false);
+        }
+
         // Render widgets
         super.render(graphics, mouseX, mouseY, partialTick);
     }
@@ -633,6 +665,14 @@ public class LootEditorScreen extends Screen implements KeyboardShortcuts.Shortc
         }
     }
 
+    @Override
+    public void removed() {
+        super.removed();
+        if (dropRatePanel != null) {
+            dropRatePanel.close();
+        }
+    }
+
     @Override
     public boolean isPauseScreen() {
         return false;
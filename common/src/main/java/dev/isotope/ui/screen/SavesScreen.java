@@ -4,6 +4,7 @@ import dev.isotope.Isotope;
 import dev.isotope.save.AnalysisSaveManager;
 import dev.isotope.save.SaveMetadata;
 import dev.isotope.ui.IsotopeColors;
+import dev.isotope.ui.IsotopeToast;
 import dev.isotope.ui.widget.IsotopeWindow;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -34,6 +35,7 @@ public class SavesScreen extends IsotopeScreen {
     private Button newAnalysisButton;
     private Button loadButton;
     private Button deleteButton;
+    private Button exportJsonButton;
 
     @Nullable
     private SaveMetadata selectedSave = null;
@@ -64,10 +66,10 @@ public class SavesScreen extends IsotopeScreen {
 
         // Buttons at bottom of window
         int buttonY = window.getContentY() + window.getContentHeight() - 30;
-        int buttonWidth = 100;
+        int buttonWidth = 85;
         int buttonHeight = 20;
-        int buttonSpacing = 10;
-        int totalButtonsWidth = buttonWidth * 3 + buttonSpacing * 2;
+        int buttonSpacing = 8;
+        int totalButtonsWidth = buttonWidth * 4 + buttonSpacing * 3;
         int buttonStartX = window.getX() + (window.getWidth() - totalButtonsWidth) / 2;
 
         // New Analysis button
@@ -93,6 +95,14 @@ public class SavesScreen extends IsotopeScreen {
         deleteButton.active = false;
         this.addRenderableWidget(deleteButton);
 
+        // Export JSON button
+        exportJsonButton = Button.builder(Component.literal("Export JSON"), btn -> exportSelectedSave())
+            .pos(buttonStartX + (buttonWidth + buttonSpacing) * 3, buttonY)
+            .size(buttonWidth, buttonHeight)
+            .build();
+        exportJsonButton.active = false;
+        this.addRenderableWidget(exportJsonButton);
+
         // Populate the list
         refreshSavesList();
     }
@@ -119,6 +129,7 @@ public class SavesScreen extends IsotopeScreen {
         boolean hasSelection = selectedSave != null;
         loadButton.active = hasSelection;
         deleteButton.active = hasSelection;
+        exportJsonButton.active = hasSelection;
     }
 
     private void startNewAnalysis() {
@@ -155,6 +166,17 @@ public class SavesScreen extends IsotopeScreen {
         }
     }
 
+    private void exportSelectedSave() {
+        if (selectedSave == null) return;
+
+        var exportResult = AnalysisSaveManager.getInstance().exportSaveAsJson(selectedSave.id());
+        if (exportResult.isPresent()) {
+            IsotopeToast.success("Exported", exportResult.get().getFileName().toString());
+        } else {
+            IsotopeToast.error("Export Failed", "See log for details");
+        }
+    }
+
     @Override
     public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         // Render window frame first
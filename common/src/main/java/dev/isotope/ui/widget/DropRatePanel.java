@@ -1,9 +1,10 @@
 package dev.isotope.ui.widget;
 
+import dev.isotope.analysis.DropRateCache;
 import dev.isotope.analysis.DropRateCalculator;
 import dev.isotope.analysis.DropRateCalculator.DropRate;
 import dev.isotope.analysis.DropRateCalculator.PoolStats;
-import dev.isotope.data.loot.LootPool;
+import dev.isotope.analysis.LootSimulator;
 import dev.isotope.data.loot.LootTableStructure;
 import dev.isotope.ui.IsotopeColors;
 import net.fabricmc.api.EnvType;
@@ -19,8 +20,9 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel showing visual drop rate distribution for a loot table.
@@ -35,13 +37,21 @@ public class DropRatePanel extends AbstractWidget {
 
     @Nullable
     private LootTableStructure structure;
-    private List<PoolStats> poolStats = new ArrayList<>();
+    private List<PoolStats> poolStats = List.of();
     private int scrollOffset = 0;
     private int maxScroll = 0;
 
     // Which pool to show (-1 = all pools combined)
     private int selectedPool = -1;
 
+    // Simulated per-chest results, shown next to the analytic rates
+    @Nullable
+    private CompletableFuture<LootSimulator.SimulationResult> simulation;
+    @Nullable
+    private LootSimulator.SimulationResult simulationResult;
+    private Map<ResourceLocation, LootSimulator.ItemResult> simulatedItems = Map.of();
+    private boolean simulationFailed = false;
+
     public DropRatePanel(int x, int y, int width, int height) {
         super(x, y, width, height, Component.literal("Drop Rates"));
     }
@@ -59,17 +69,15 @@ public class DropRatePanel extends AbstractWidget {
      * Recalculate drop rates (call after edits).
      */
     public void recalculate() {
-        poolStats.clear();
+        poolStats = List.of();
+        startSimulation();
 
         if (structure == null) {
             maxScroll = 0;
             return;
         }
 
-        for (int i = 0; i < structure.pools().size(); i++) {
-            LootPool pool = structure.pools().get(i);
-            poolStats.add(DropRateCalculator.calculatePoolStats(pool, i));
-        }
+        poolStats = DropRateCache.getInstance().get(structure).poolStats();
 
         // Calculate max scroll
         int contentHeight = HEADER_HEIGHT;
@@ -77,10 +85,51 @@ public class DropRatePanel extends AbstractWidget {
             contentHeight += HEADER_HEIGHT; // Pool header
             contentHeight += ps.rates().size() * ROW_HEIGHT;
         }
-        contentHeight += 30; // Summary
+        contentHeight += 42; // Summary
         maxScroll = Math.max(0, contentHeight - height);
     }
 
+    /**
+     * Cancel a running simulation. Call when the panel is replaced or its
+     * screen is removed, so the simulator pool does not keep rolling for it.
+     */
+    public void close() {
+        if (simulation != null) {
+            simulation.cancel(false);
+            simulation = null;
+        }
+    }
+
+    /**
+     * Roll the current structure in the background. Any simulation still
+     * running for a previous structure is cancelled.
+     */
+    private void startSimulation() {
+        close();
+        simulationResult = null;
+        simulatedItems = Map.of();
+        simulationFailed = false;
+
+        if (structure == null) {
+            return;
+        }
+
+        CompletableFuture<LootSimulator.SimulationResult> future = LootSimulator.getInstance()
+            .simulateAsync(structure, LootSimulator.DEFAULT_ROLLS, structure.id().hashCode());
+        simulation = future;
+        future.whenComplete((result, error) -> Minecraft.getInstance().execute(() -> {
+            if (simulation != future) {
+                return; // Cancelled or superseded
+            }
+            if (error != null) {
+                simulationFailed = true;
+            } else {
+                simulationResult = result;
+                simulatedItems = result.byItem();
+            }
+        }));
+    }
+
     @Override
     protected void renderWidget(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         Font font = Minecraft.getInstance().font;
@@ -116,6 +165,13 @@ public class DropRatePanel extends AbstractWidget {
         String summary = String.format("Expected items per chest: %.1f", totalExpected);
         graphics.drawString(font, summary, getX() + PADDING, y, IsotopeColors.TEXT_SECONDARY, false);
 
+        y += 12;
+        String simSummary = simulationResult != null
+            ? String.format("Simulated: %.1f stacks per chest (%,d rolls, %d ms)",
+                simulationResult.meanStacksPerRoll(), simulationResult.rolls(), simulationResult.durationMillis())
+            : simulationFailed ? "Simulation failed" : "Simulating...";
+        graphics.drawString(font, simSummary, getX() + PADDING, y, IsotopeColors.TEXT_MUTED, false);
+
         graphics.disableScissor();
 
         // Scrollbar
@@ -191,6 +247,14 @@ public class DropRatePanel extends AbstractWidget {
             String countText = String.format("(%.1f)", rate.avgCount());
             graphics.drawString(font, countText, x, y + 6, IsotopeColors.TEXT_MUTED, false);
         }
+
+        // Simulated chance to appear per chest
+        LootSimulator.ItemResult simulated = simulatedItems.get(rate.item());
+        if (simulated != null) {
+            String simText = String.format("sim %.1f%%", simulated.percentChance());
+            int simX = getX() + width - PADDING - 6 - font.width(simText);
+            graphics.drawString(font, simText, simX, y + 6, IsotopeColors.TEXT_MUTED, false);
+        }
     }
 
     @Override
@@ -18,10 +18,21 @@ import dev.isotope.Isotope;
 import dev.isotope.registry.LootTableRegistry;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Global search widget for searching items across all loot tables.
+ *
+ * Typing only records the query; once typing pauses, the search runs on the
+ * search thread and any older search still running is cancelled. The best
+ * hits are shown as soon as they are found and the full list replaces them
+ * when the search completes, so rendering never waits on a search.
+ *
+ * Text with a comparison, such as "tables item=diamond share<5%", is run
+ * as a LootQuery.
  */
 @Environment(EnvType.CLIENT)
 public class GlobalSearchWidget extends AbstractWidget {
@@ -31,8 +42,13 @@ public class GlobalSearchWidget extends AbstractWidget {
     private static final int RESULT_HEIGHT = 20;
     private static final int MAX_VISIBLE_RESULTS = 10;
 
+    // Typing pause before a search starts
+    private static final long DEBOUNCE_MS = 150;
+
+    // Hits shown before the search completes
+    private static final int FIRST_BATCH = 50;
+
     private EditBox searchBox;
-    private List<SearchHit> results = new ArrayList<>();
     private List<SearchHit> filteredResults = new ArrayList<>();
     private int scrollOffset = 0;
     private int hoveredResult = -1;
@@ -43,6 +59,19 @@ public class GlobalSearchWidget extends AbstractWidget {
     private int hoveredNamespace = -1;
     private boolean showNamespaceDropdown = false;
 
+    // Search edited tables (default) or the originals
+    private SearchIndex.View view = SearchIndex.View.EDITED;
+
+    // Async search state
+    private String pendingQuery = null; // Typed but not searched yet
+    private long lastKeystroke = 0;
+    private CompletableFuture<List<SearchHit>> searchFuture;
+    private int searchGeneration = 0;
+    private boolean searching = false;
+    private boolean partialResults = false;
+    private boolean resetScroll = false;
+    private String queryError = null;
+
     private final Consumer<ResourceLocation> onTableSelected;
 
     public GlobalSearchWidget(int x, int y, int width, int height, Consumer<ResourceLocation> onTableSelected) {
@@ -62,6 +91,11 @@ public class GlobalSearchWidget extends AbstractWidget {
     protected void renderWidget(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         Font font = Minecraft.getInstance().font;
 
+        // Start the search once typing pauses
+        if (pendingQuery != null && System.currentTimeMillis() - lastKeystroke >= DEBOUNCE_MS) {
+            searchNow();
+        }
+
         // Background
         graphics.fill(getX(), getY(), getX() + width, getY() + height, 0xFF1a1a1a);
         graphics.renderOutline(getX(), getY(), width, height, 0xFF333333);
@@ -96,6 +130,18 @@ public class GlobalSearchWidget extends AbstractWidget {
         graphics.drawString(font, filterLabel, getX() + 12, filterY + 4, IsotopeColors.TEXT_PRIMARY, false);
         graphics.drawString(font, "▼", getX() + 8 + filterWidth - 10, filterY + 4, IsotopeColors.TEXT_MUTED, false);
 
+        // View toggle (right side of the filter row)
+        String viewLabel = getViewLabel();
+        int viewWidth = font.width(viewLabel) + 8;
+        int viewX = getX() + width - 8 - viewWidth;
+        boolean viewHovered = mouseX >= viewX && mouseX < viewX + viewWidth &&
+            mouseY >= filterY && mouseY < filterY + FILTER_HEIGHT;
+        graphics.fill(viewX, filterY, viewX + viewWidth, filterY + FILTER_HEIGHT,
+            viewHovered ? 0xFF3a3a3a : 0xFF2a2a2a);
+        graphics.renderOutline(viewX, filterY, viewWidth, FILTER_HEIGHT, 0xFF404040);
+        graphics.drawString(font, viewLabel, viewX + 4, filterY + 4,
+            view == SearchIndex.View.EDITED ? IsotopeColors.ACCENT_GOLD : IsotopeColors.TEXT_PRIMARY, false);
+
         // Namespace dropdown (if open)
         if (showNamespaceDropdown && !availableNamespaces.isEmpty()) {
             renderNamespaceDropdown(graphics, font, mouseX, mouseY, filterY + FILTER_HEIGHT);
@@ -146,12 +192,24 @@ public class GlobalSearchWidget extends AbstractWidget {
 
         // Result count or empty state
         if (!filteredResults.isEmpty()) {
-            String countText = filteredResults.size() + " result" + (filteredResults.size() > 1 ? "s" : "");
+            String countText = filteredResults.size() + (partialResults ? "+" : "")
+                + " result" + (filteredResults.size() > 1 || partialResults ? "s" : "");
             if (selectedNamespace != null) {
                 countText += " in " + selectedNamespace;
             }
             graphics.drawString(font, countText, getX() + width - font.width(countText) - 8,
                 getY() + height - 14, IsotopeColors.TEXT_MUTED, false);
+        } else if (queryError != null) {
+            graphics.drawString(font, "Invalid query:", getX() + 8, resultsY + 10,
+                IsotopeColors.STATUS_ERROR, false);
+            String message = queryError;
+            if (font.width(message) > width - 16) {
+                message = font.plainSubstrByWidth(message, width - 26) + "...";
+            }
+            graphics.drawString(font, message, getX() + 8, resultsY + 22, IsotopeColors.TEXT_MUTED, false);
+        } else if (searching || pendingQuery != null) {
+            graphics.drawString(font, "Searching...", getX() + 8, resultsY + 10,
+                IsotopeColors.TEXT_MUTED, false);
         } else if (searchBox != null && !searchBox.getValue().isEmpty()) {
             // No results for search query
             graphics.drawString(font, "No results found", getX() + 8, resultsY + 10,
@@ -165,12 +223,14 @@ public class GlobalSearchWidget extends AbstractWidget {
             }
         } else {
             // Empty search - show hint
-            graphics.drawString(font, "Search for items by name or ID", getX() + 8, resultsY + 10,
+            graphics.drawString(font, "Search items or tables by name or ID", getX() + 8, resultsY + 10,
                 IsotopeColors.TEXT_MUTED, false);
             graphics.drawString(font, "e.g. 'diamond', 'iron_ingot'", getX() + 8, resultsY + 22,
                 IsotopeColors.TEXT_MUTED, false);
             graphics.drawString(font, "Use filter to search by mod", getX() + 8, resultsY + 36,
                 IsotopeColors.TEXT_MUTED, false);
+            graphics.drawString(font, "Or query: tables item=diamond share<5%", getX() + 8, resultsY + 50,
+                IsotopeColors.TEXT_MUTED, false);
         }
 
         // Scrollbar
@@ -227,34 +287,102 @@ public class GlobalSearchWidget extends AbstractWidget {
     }
 
     private void onSearch(String query) {
-        scrollOffset = 0;
         if (query.isBlank()) {
-            results = new ArrayList<>();
-        } else {
-            results = new ArrayList<>(SearchIndex.getInstance().search(query));
+            // Nothing to search, clear right away
+            pendingQuery = null;
+            startSearch(query);
+            return;
         }
+        pendingQuery = query;
+        lastKeystroke = System.currentTimeMillis();
+    }
 
-        // Extract available namespaces from results
-        availableNamespaces = results.stream()
-            .map(hit -> hit.table().getNamespace())
-            .distinct()
-            .sorted()
-            .toList();
-
-        applyFilter();
+    /**
+     * Search for the current query now, skipping the typing pause.
+     */
+    private void searchNow() {
+        pendingQuery = null;
+        startSearch(searchBox != null ? searchBox.getValue() : "");
     }
 
-    private void applyFilter() {
-        if (selectedNamespace == null) {
-            filteredResults = new ArrayList<>(results);
-        } else {
-            filteredResults = results.stream()
-                .filter(hit -> hit.table().getNamespace().equals(selectedNamespace))
-                .toList();
+    private void startSearch(String query) {
+        if (searchFuture != null) {
+            searchFuture.cancel(false);
+            searchFuture = null;
         }
+        int generation = ++searchGeneration;
+        queryError = null;
+
+        if (query.isBlank()) {
+            filteredResults = new ArrayList<>();
+            searching = false;
+            partialResults = false;
+            scrollOffset = 0;
+            return;
+        }
+
+        // Keep showing the previous results until the first new ones arrive
+        searching = true;
+        resetScroll = true;
+
+        String namespace = selectedNamespace;
+        Predicate<SearchHit> filter = namespace == null
+            ? hit -> true
+            : hit -> hit.table().getNamespace().equals(namespace);
+
+        CompletableFuture<List<SearchHit>> future = SearchIndex.getInstance().searchAsync(
+            query, view, filter, FIRST_BATCH, (hits, complete) -> {
+                // Namespaces of unfiltered results, collected off the render thread
+                List<String> namespaces = complete && namespace == null
+                    ? hits.stream().map(hit -> hit.table().getNamespace()).distinct().sorted().toList()
+                    : null;
+                Minecraft.getInstance().execute(() -> {
+                    if (generation == searchGeneration) {
+                        showResults(hits, complete, namespaces);
+                    }
+                });
+            });
+        future.whenComplete((hits, error) -> {
+            if (error != null && !(error instanceof CancellationException)) {
+                Minecraft.getInstance().execute(() -> {
+                    if (generation == searchGeneration) {
+                        showError(error.getMessage());
+                    }
+                });
+            }
+        });
+        searchFuture = future;
+    }
+
+    private void showError(String message) {
+        queryError = message != null ? message : "Search failed";
+        filteredResults = new ArrayList<>();
+        searching = false;
+        partialResults = false;
+        searchFuture = null;
         scrollOffset = 0;
     }
 
+    private void showResults(List<SearchHit> hits, boolean complete, List<String> namespaces) {
+        filteredResults = hits;
+        searching = !complete;
+        partialResults = !complete;
+        if (namespaces != null) {
+            availableNamespaces = namespaces;
+        }
+        if (resetScroll) {
+            scrollOffset = 0;
+            resetScroll = false;
+        }
+        if (complete) {
+            searchFuture = null;
+        }
+    }
+
+    private String getViewLabel() {
+        return view == SearchIndex.View.EDITED ? "Edited" : "Original";
+    }
+
     /**
      * Focus the search box.
      */
@@ -310,6 +438,16 @@ public class GlobalSearchWidget extends AbstractWidget {
             return true;
         }
 
+        // Check view toggle click
+        int viewWidth = font.width(getViewLabel()) + 8;
+        int viewX = getX() + width - 8 - viewWidth;
+        if (!showNamespaceDropdown && mouseX >= viewX && mouseX < viewX + viewWidth &&
+            mouseY >= filterY && mouseY < filterY + FILTER_HEIGHT) {
+            view = view == SearchIndex.View.EDITED ? SearchIndex.View.ORIGINAL : SearchIndex.View.EDITED;
+            searchNow();
+            return true;
+        }
+
         // Check dropdown selection
         if (showNamespaceDropdown) {
             int dropdownWidth = 120;
@@ -323,12 +461,12 @@ public class GlobalSearchWidget extends AbstractWidget {
                 if (clickedIndex == 0) {
                     // "All Mods" selected
                     selectedNamespace = null;
-                    applyFilter();
+                    searchNow();
                     showNamespaceDropdown = false;
                     return true;
                 } else if (clickedIndex > 0 && clickedIndex <= availableNamespaces.size()) {
                     selectedNamespace = availableNamespaces.get(clickedIndex - 1);
-                    applyFilter();
+                    searchNow();
                     showNamespaceDropdown = false;
                     return true;
                 }
@@ -1,8 +1,10 @@
 package dev.isotope.ui.widget;
 
+import dev.isotope.analysis.ExpectedValueEngine;
 import dev.isotope.data.BookmarkManager;
 import dev.isotope.data.LootTableInfo;
 import dev.isotope.data.LootTableInfo.LootTableCategory;
+import dev.isotope.editing.LootEditManager;
 import dev.isotope.registry.LootTableRegistry;
 import dev.isotope.ui.IsotopeColors;
 import net.fabricmc.api.EnvType;
@@ -17,6 +19,7 @@ import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -53,6 +56,13 @@ public class LootTableBrowserWidget extends AbstractWidget {
     private List<String> availableMods = new ArrayList<>();
     private Map<LootTableCategory, List<LootTableInfo>> tablesByCategory = new LinkedHashMap<>();
     private List<LootTableInfo> filteredTables = new ArrayList<>();
+    private int filterGeneration = 0;
+
+    // Expected stacks per open of the filtered tables, computed in the background
+    private Map<ResourceLocation, Double> expectedStacks = Map.of();
+    private CompletableFuture<Map<ResourceLocation, ExpectedValueEngine.TableExpectation>> expectedFuture;
+    private int expectedFilterGeneration = -1;
+    private long expectedEditVersion = -1;
 
     // Selection
     @Nullable
@@ -146,11 +156,41 @@ public class LootTableBrowserWidget extends AbstractWidget {
             }
         }
 
+        filterGeneration++;
+
         // Reset scroll
         scrollOffset = 0;
         calculateMaxScroll();
     }
 
+    /**
+     * Recompute expectations in the background when the filtered list or
+     * any edit changed. Until they arrive the previous values are shown.
+     */
+    private void refreshExpectations() {
+        long editVersion = LootEditManager.getInstance().getGlobalEditVersion();
+        if (expectedFilterGeneration == filterGeneration && expectedEditVersion == editVersion) {
+            return;
+        }
+        expectedFilterGeneration = filterGeneration;
+        expectedEditVersion = editVersion;
+
+        if (expectedFuture != null) {
+            expectedFuture.cancel(false);
+        }
+        List<ResourceLocation> ids = filteredTables.stream().map(LootTableInfo::id).toList();
+        var future = ExpectedValueEngine.getInstance().getAllAsync(ids);
+        expectedFuture = future;
+        future.thenAccept(results -> Minecraft.getInstance().execute(() -> {
+            if (expectedFuture == future) {
+                Map<ResourceLocation, Double> stacks = new HashMap<>();
+                results.forEach((id, expectation) -> stacks.put(id, expectation.expectedStacks()));
+                expectedStacks = stacks;
+                expectedFuture = null;
+            }
+        }));
+    }
+
     private void calculateMaxScroll() {
         int contentHeight = 0;
 
@@ -211,6 +251,7 @@ public class LootTableBrowserWidget extends AbstractWidget {
     @Override
     protected void renderWidget(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         var font = Minecraft.getInstance().font;
+        refreshExpectations();
 
         // Background
         graphics.fill(getX(), getY(), getX() + width, getY() + height, 0xFF1e1e1e);
@@ -363,9 +404,18 @@ public class LootTableBrowserWidget extends AbstractWidget {
                             graphics.drawString(font, star, getX() + 3, renderY + 4, starColor, false);
                         }
 
+                        // Expected stacks per chest open, right-aligned
+                        Double stacks = expectedStacks.get(table.id());
+                        String expected = stacks != null ? String.format("~%.1f", stacks) : "";
+                        int expectedWidth = expected.isEmpty() ? 0 : font.width(expected) + 6;
+                        if (!expected.isEmpty()) {
+                            graphics.drawString(font, expected, getX() + width - font.width(expected) - 4,
+                                renderY + 4, IsotopeColors.TEXT_MUTED, false);
+                        }
+
                         String path = table.id().getPath();
-                        if (font.width(path) > width - INDENT - 8) {
-                            path = font.plainSubstrByWidth(path, width - INDENT - 16) + "...";
+                        if (font.width(path) > width - INDENT - 8 - expectedWidth) {
+                            path = font.plainSubstrByWidth(path, width - INDENT - 16 - expectedWidth) + "...";
                         }
                         graphics.drawString(font, path, getX() + INDENT + 4, renderY + 4,
                             isSelected ? 0xFFFFFFFF : IsotopeColors.TEXT_SECONDARY, false);
@@ -1,5 +1,6 @@
 package dev.isotope.ui.widget;
 
+import dev.isotope.analysis.ExpectedValueEngine;
 import dev.isotope.data.StructureLootLink;
 import dev.isotope.editing.LootEditManager;
 import dev.isotope.ui.IsotopeColors;
@@ -13,6 +14,10 @@ import net.minecraft.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -38,6 +43,15 @@ public class LootTableDetailPanel {
     private int editButtonX, editButtonY, editButtonWidth, editButtonHeight;
     private boolean editButtonVisible = false;
 
+    // Expectation of the current table, computed in the background
+    @Nullable
+    private ExpectedValueEngine.TableExpectation expectation;
+    @Nullable
+    private ResourceLocation expectationTable;
+    private long expectationVersion = -1;
+    @Nullable
+    private CompletableFuture<Map<ResourceLocation, ExpectedValueEngine.TableExpectation>> expectationFuture;
+
     public LootTableDetailPanel(int x, int y, int width, int height) {
         this.x = x;
         this.y = y;
@@ -54,8 +68,41 @@ public class LootTableDetailPanel {
         this.currentEntry = entry;
     }
 
+    /**
+     * Request the current table's expectation when the table or its edits changed.
+     */
+    private void refreshExpectation() {
+        ResourceLocation tableId = currentEntry != null ? ResourceLocation.parse(currentEntry.info().fullId()) : null;
+        long version = LootEditManager.getInstance().getGlobalEditVersion();
+        if (Objects.equals(tableId, expectationTable) && version == expectationVersion) {
+            return;
+        }
+        if (!Objects.equals(tableId, expectationTable)) {
+            expectation = null;
+        }
+        expectationTable = tableId;
+        expectationVersion = version;
+
+        if (expectationFuture != null) {
+            expectationFuture.cancel(false);
+            expectationFuture = null;
+        }
+        if (tableId == null) {
+            return;
+        }
+        var future = ExpectedValueEngine.getInstance().getAllAsync(List.of(tableId));
+        expectationFuture = future;
+        future.thenAccept(results -> Minecraft.getInstance().execute(() -> {
+            if (expectationFuture == future) {
+                expectation = results.get(tableId);
+                expectationFuture = null;
+            }
+        }));
+    }
+
     public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         Font font = Minecraft.getInstance().font;
+        refreshExpectation();
 
         // Panel background
         graphics.fill(x, y, x + width, y + height, IsotopeColors.BACKGROUND_PANEL);
@@ -172,6 +219,34 @@ public class LootTableDetailPanel {
             graphics.drawString(font, "You can manually link it", x + 10, contentY, IsotopeColors.ACCENT_CYAN);
             contentY += 10;
             graphics.drawString(font, "from the Structures tab.", x + 10, contentY, IsotopeColors.ACCENT_CYAN);
+            contentY += 12;
+        }
+
+        // Expected yield per chest open
+        Optional<ExpectedValueEngine.TableExpectation> expectation = Optional.ofNullable(this.expectation);
+        if (expectation.isPresent() && !expectation.get().items().isEmpty()) {
+            contentY += 4;
+            graphics.fill(x + 5, contentY, x + width - 5, contentY + 1, IsotopeColors.BORDER_DEFAULT);
+            contentY += 8;
+
+            String header = String.format("Per Chest: ~%.1f stacks", expectation.get().expectedStacks());
+            if (expectation.get().cyclic() || expectation.get().approximate()) {
+                header += " *";
+            }
+            graphics.drawString(font, header, x + 10, contentY, IsotopeColors.ACCENT_CYAN);
+            contentY += 14;
+
+            for (var item : expectation.get().items().subList(0, Math.min(8, expectation.get().items().size()))) {
+                String itemPath = item.item().getPath();
+                String count = String.format("%.2f", item.expectedCount());
+                int countX = x + width - font.width(count) - 10;
+                if (font.width(itemPath) > countX - x - 16) {
+                    itemPath = font.plainSubstrByWidth(itemPath, countX - x - 24) + "...";
+                }
+                graphics.drawString(font, itemPath, x + 10, contentY, IsotopeColors.TEXT_SECONDARY);
+                graphics.drawString(font, count, countX, contentY, IsotopeColors.TEXT_MUTED);
+                contentY += 10;
+            }
         }
 
         graphics.disableScissor();